@@ -5,8 +5,10 @@ import entertainment.Video;
 import fileio.ActorInputData;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Class contains information about an Actor
@@ -31,6 +33,14 @@ public class Actor {
      * Map that stores de Awards and the number of Awards
      */
     private Map<ActorsAwards, Integer> awards;
+    /**
+     * Awards of the Actor, one bit for each ActorsAwards ordinal
+     */
+    private int awardsMask;
+    /**
+     * Average rating of the rated videos in which the Actor has played
+     */
+    private double averageRating;
 
     /**
      * Constructor
@@ -48,38 +58,52 @@ public class Actor {
         this.name = input.getName();
         this.careerDescription = input.getCareerDescription();
         this.awards = input.getAwards();
+        this.awardsMask = awardsMask(awards.keySet());
 
         List<Video> inputVideos = new ArrayList<>();
         input.getFilmography().stream()
-                .filter((title) -> instance.getVideoByName(title) != null)
-                .forEach((title) -> inputVideos.add(instance.getVideoByName(title)));
+                .map(instance::getVideoByName)
+                .filter(Objects::nonNull)
+                .forEach(inputVideos::add);
 
         this.videos = inputVideos;
+        updateAverageRating();
     }
 
     /**
      * Average Calculator
      * <p> This method computes the average grade of all the videos
-     * in which the actor has played. This method is used in the
-     * queries actions.
-     *
-     * @return the average rating of all the movies in which the
-     * actor has played, and 0 if there is no reviewed movie
+     * in which the actor has played and stores it for the queries actions.
+     * <p> It is called once a video from the actor's list has been rated,
+     * so that queries never recompute it. The sum is computed again over
+     * the whole list, in its order, rather than adjusted by the change of
+     * one rating, so that equal averages are always computed equal.
      */
-    public double getAverageRating() {
+    public void updateAverageRating() {
         double reviewsSum = 0;
         double reviewsCount = 0;
 
         for (Video video : videos) {
-            if (video.getRating() != 0) {
-                reviewsSum += video.getRating();
+            double rating = video.getRating();
+            if (rating != 0) {
+                reviewsSum += rating;
                 reviewsCount++;
             }
         }
         if (reviewsCount != 0) {
-            return (reviewsSum / reviewsCount);
+            averageRating = reviewsSum / reviewsCount;
+        } else {
+            averageRating = 0;
         }
-        return 0;
+    }
+
+    /**
+     * Average Getter
+     * @return the average rating of all the movies in which the
+     * actor has played, and 0 if there is no reviewed movie
+     */
+    public double getAverageRating() {
+        return averageRating;
     }
 
     /**
@@ -103,12 +127,36 @@ public class Actor {
      * @return true, if the actor has all awards from List and false, otherwise
      */
     public boolean hasAwardsFromList(final List<ActorsAwards> awardsList) {
+        int mask = awardsMask(awardsList);
+        return (awardsMask & mask) == mask;
+    }
+
+    /**
+     * Awards Mask Calculator
+     * <p> Unknown (null) awards get the bit following the last ordinal, so
+     * that they only match each other, like the keys of the awards map.
+     *
+     * @param awardsList Collection of awards
+     * @return the mask having one bit set for each given award
+     */
+    public static int awardsMask(final Collection<ActorsAwards> awardsList) {
+        int mask = 0;
         for (ActorsAwards award : awardsList) {
-            if (!hasAward(award)) {
-                return false;
+            if (award == null) {
+                mask |= 1 << ActorsAwards.values().length;
+            } else {
+                mask |= 1 << award.ordinal();
             }
         }
-        return true;
+        return mask;
+    }
+
+    /**
+     * Awards Mask Getter
+     * @return the mask of the awards of the actor
+     */
+    public int getAwardsMask() {
+        return awardsMask;
     }
 
     /**
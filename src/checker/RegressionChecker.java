@@ -0,0 +1,399 @@
+package checker;
+
+import actor.ActorsAwards;
+import database.Database;
+import database.DatabaseLoader;
+import fileio.ActionInputData;
+import fileio.ActorInputData;
+import fileio.Input;
+import fileio.MovieInputData;
+import fileio.SerialInputData;
+import fileio.UserInputData;
+import platform.Action;
+import platform.ActionContext;
+import platform.ActionExecutor;
+import platform.ActionRegistry;
+import platform.queries.Query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Checker to verify the output of known action logs
+ * <p> Each check executes a short log of actions on a small database and
+ * compares the output messages with the expected ones. The logs cover the
+ * cases in which the caches and the parallel executions must give the same
+ * output as a plain sequential execution.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+public final class RegressionChecker {
+    /**
+     * Year of the movies of the database
+     */
+    private static final int YEAR = 2000;
+    /**
+     * Duration of the longest movie of the database
+     */
+    private static final int LONG_DURATION = 120;
+    /**
+     * Duration of the shortest movie of the database
+     */
+    private static final int SHORT_DURATION = 90;
+    /**
+     * Grade given by the rating commands
+     */
+    private static final double GRADE = 8.0;
+    /**
+     * Size of the list of the selection checks, above the size of a range
+     * selected by a single parallel task
+     */
+    private static final int SELECTION_SIZE = 20000;
+    /**
+     * Number of objects selected by the selection checks
+     */
+    private static final int SELECTED = 50;
+    /**
+     * Number of distinct names of the objects of the selection checks
+     */
+    private static final int NAMES = 10;
+    /**
+     * Number of distinct sort keys of the objects of the selection checks
+     */
+    private static final int KEYS = 3;
+    /**
+     * Grades given to each movie by the users of the actor averages check
+     */
+    private static final List<Double> AVERAGE_GRADES = List.of(1.0, 1.0, 2.0);
+
+    /**
+     * Number of failed checks
+     */
+    private int failures;
+
+    /**
+     * Runs all the checks and displays the result
+     */
+    public void testRegressions() {
+        checkUnknownCriteriaAfterCachedQuery();
+        checkUnknownTypeAfterCachedRecommendation();
+        checkUnknownCriteriaAfterParallelRun();
+        checkSeveralYearRanges();
+        checkParallelSelection();
+        checkTiedActorAverages();
+        checkConfiguredParallelThreshold();
+
+        System.out.println("-----------------------------");
+        System.out.println("Regressions: " + ((failures == 0) ? "Ok" : "Failed"));
+    }
+
+    /**
+     * An action matching no factory executes the previous action again. When
+     * the result of the previous query is taken from the cache, that query
+     * must be executed again, and not the command executed before it.
+     */
+    private void checkUnknownCriteriaAfterCachedQuery() {
+        List<ActionInputData> actions = new ArrayList<>();
+        actions.add(longestQuery(0));
+        actions.add(new ActionInputData(1, "command", "view", "second", "Short", 0.0, 0));
+        actions.add(longestQuery(2));
+        actions.add(new ActionInputData(3, "query", "movies", null, "asc", "bogus", null, 2,
+                null, null));
+
+        check("unknown criteria after a cached query", execute(actions, false), List.of(
+                "Query result: [Short, Long]",
+                "success -> Short was viewed with total views of 1",
+                "Query result: [Short, Long]",
+                "Query result: [Short, Long]Query result: [Short, Long]"));
+    }
+
+    /**
+     * Like the check above, for recommendations: the cached recommendation
+     * must be executed again, and not the command executed before it.
+     */
+    private void checkUnknownTypeAfterCachedRecommendation() {
+        List<ActionInputData> actions = new ArrayList<>();
+        actions.add(recommendation(0, "standard"));
+        actions.add(new ActionInputData(1, "command", "rating", "first", "Long", GRADE, 0));
+        actions.add(recommendation(2, "standard"));
+        actions.add(recommendation(3, "bogus"));
+
+        check("unknown type after a cached recommendation", execute(actions, false), List.of(
+                "StandardRecommendation result: Long",
+                "success -> Long was rated with 8.0 by first",
+                "StandardRecommendation result: Long",
+                "StandardRecommendation result: LongStandardRecommendation result: Long"));
+    }
+
+    /**
+     * Longest Movies Query
+     * @param actionId The id of the action
+     * @return the input of a query for the two shortest movies
+     */
+    private static ActionInputData longestQuery(final int actionId) {
+        return new ActionInputData(actionId, "query", "movies", null, "asc", "longest", null, 2,
+                null, null);
+    }
+
+    /**
+     * Like the checks above, for a run of queries executed in parallel: the
+     * query executed again is the one of the last input of the run, even if
+     * it repeats an earlier query of the run.
+     */
+    private void checkUnknownCriteriaAfterParallelRun() {
+        List<ActionInputData> actions = new ArrayList<>();
+        actions.add(new ActionInputData(0, "command", "view", "second", "Short", 0.0, 0));
+        actions.add(longestQuery(1));
+        actions.add(new ActionInputData(2, "query", "movies", null, "desc", "longest", null, 2,
+                null, null));
+        actions.add(longestQuery(3));
+        actions.add(new ActionInputData(4, "query", "movies", null, "asc", "bogus", null, 2,
+                null, null));
+
+        check("unknown criteria after a parallel run", execute(actions, true), List.of(
+                "success -> Short was viewed with total views of 1",
+                "Query result: [Short, Long]",
+                "Query result: [Long, Short]",
+                "Query result: [Short, Long]",
+                "Query result: [Short, Long]Query result: [Short, Long]"));
+    }
+
+    /**
+     * A filter may hold several ranges of years, and a video released in any
+     * of them matches it.
+     */
+    private void checkSeveralYearRanges() {
+        ActionInputData query = new ActionInputData(0, "query", "movies", null, "asc",
+                "longest", "1995-2005", 2, null, null);
+        query.getFilters().get(0).add("1980-1990");
+
+        check("several ranges of years", execute(List.of(query), false), List.of(
+                "Query result: [Short, Long]"));
+    }
+
+    /**
+     * The parallel top-K selection must give the same objects, in the same
+     * order, as the sequential one, even when many objects have the same
+     * sort key and the same name and are only ranked by their position.
+     */
+    private void checkParallelSelection() {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < SELECTION_SIZE; id++) {
+            ids.add(id);
+        }
+
+        for (String sortType : List.of("asc", "desc")) {
+            check("parallel selection, " + sortType, select(ids, sortType, 1),
+                    select(ids, sortType, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Actors whose videos have the same ratings have the same average, and
+     * are ranked by name. The average must be computed like the first time,
+     * however the ratings were reached, so that no rounding error breaks
+     * the tie.
+     */
+    private void checkTiedActorAverages() {
+        List<MovieInputData> movies = new ArrayList<>();
+        Map<String, Integer> history = new LinkedHashMap<>();
+        for (String title : List.of("X", "Y", "Z")) {
+            movies.add(new MovieInputData(title, new ArrayList<>(),
+                    new ArrayList<>(List.of("Drama")), YEAR, SHORT_DURATION));
+            history.put(title, 1);
+        }
+
+        List<UserInputData> users = new ArrayList<>();
+        for (int i = 0; i < AVERAGE_GRADES.size(); i++) {
+            users.add(new UserInputData("user" + i, "PREMIUM", new LinkedHashMap<>(history),
+                    new ArrayList<>()));
+        }
+
+        List<ActorInputData> actors = new ArrayList<>();
+        actors.add(new ActorInputData("Zed", "An actor.", new ArrayList<>(List.of("X", "Y")),
+                new LinkedHashMap<ActorsAwards, Integer>()));
+        actors.add(new ActorInputData("Amy", "An actor.", new ArrayList<>(List.of("Z")),
+                new LinkedHashMap<ActorsAwards, Integer>()));
+
+        List<ActionInputData> actions = new ArrayList<>();
+        for (String title : history.keySet()) {
+            for (int i = 0; i < AVERAGE_GRADES.size(); i++) {
+                actions.add(new ActionInputData(actions.size(), "command", "rating", "user" + i,
+                        title, AVERAGE_GRADES.get(i), 0));
+            }
+        }
+        actions.add(new ActionInputData(actions.size(), "query", "actors", null, "asc",
+                "average", null, 2, null, null));
+
+        List<String> messages = execute(new Input(actors, users, actions, movies,
+                new ArrayList<SerialInputData>()), false);
+        check("tied actor averages", messages.subList(messages.size() - 1, messages.size()),
+                List.of("Query result: [Amy, Zed]"));
+    }
+
+    /**
+     * Top-K Selection
+     * <p> Selects the odd ids, ranked by a sort key and then by a name shared
+     * by many ids.
+     *
+     * @param ids The ids, in order
+     * @param sortType Sort Type, could be ascending or descending
+     * @param parallelThreshold Minimum size of a list selected in parallel
+     * @return the selected ids
+     */
+    private static List<String> select(final List<Integer> ids, final String sortType,
+                                       final int parallelThreshold) {
+        Query<Integer> query = new Query<Integer>(SELECTED, sortType, ids, null,
+                parallelThreshold) {
+            @Override
+            public List<Integer> getFilteredList(final List<Integer> x) {
+                return x;
+            }
+
+            @Override
+            public List<Integer> getValidatedList(final List<Integer> x) {
+                return x;
+            }
+
+            @Override
+            public List<Integer> getSortedList(final List<Integer> x) {
+                return x;
+            }
+
+            @Override
+            protected Predicate<Integer> getFilterTest() {
+                return (id) -> id % 2 == 1;
+            }
+
+            @Override
+            protected Predicate<Integer> getValidationTest() {
+                return (id) -> true;
+            }
+
+            @Override
+            protected Comparator<Integer> getComparator() {
+                return Comparator.comparing((Integer id) -> "name" + id % NAMES);
+            }
+
+            @Override
+            protected ToDoubleFunction<Integer> getSortKey() {
+                return (id) -> id % KEYS;
+            }
+
+            @Override
+            public void execute() { }
+        };
+
+        List<String> selected = new ArrayList<>();
+        query.getFinalList(ids).forEach((id) -> selected.add(String.valueOf(id)));
+        return selected;
+    }
+
+    /**
+     * The parallel threshold set on a registry must reach the queries it
+     * creates.
+     */
+    private void checkConfiguredParallelThreshold() {
+        ActionRegistry registry = ActionRegistry.createDefault();
+        registry.setParallelThreshold(1);
+        Action action = registry.create(new ActionContext(longestQuery(0),
+                DatabaseLoader.loadInput(input(new ArrayList<>()))));
+
+        List<String> thresholds = new ArrayList<>();
+        if (action instanceof Query) {
+            thresholds.add(String.valueOf(((Query<?>) action).getParallelThreshold()));
+        }
+        check("configured parallel threshold", thresholds, List.of("1"));
+    }
+
+    /**
+     * Recommendation
+     * @param actionId The id of the action
+     * @param type The type of the recommendation
+     * @return the input of a recommendation for the user "second"
+     */
+    private static ActionInputData recommendation(final int actionId, final String type) {
+        return new ActionInputData(actionId, "recommendation", type, "second", null, 0.0, 0);
+    }
+
+    /**
+     * Log Executor
+     * @param actions The input of the actions, in order
+     * @param parallel True, if the runs of queries and recommendations are
+     *                 executed in parallel
+     * @return the output messages of the actions
+     */
+    private static List<String> execute(final List<ActionInputData> actions,
+                                        final boolean parallel) {
+        return execute(input(actions), parallel);
+    }
+
+    /**
+     * Log Input
+     * <p> The database holds the movies "Long" and "Short", and the users
+     * "first", who has seen "Long", and "second", who has seen nothing.
+     *
+     * @param actions The input of the actions, in order
+     * @return the input of the database and of the actions
+     */
+    private static Input input(final List<ActionInputData> actions) {
+        List<MovieInputData> movies = new ArrayList<>();
+        movies.add(new MovieInputData("Long", new ArrayList<>(), new ArrayList<>(List.of("Drama")),
+                YEAR, LONG_DURATION));
+        movies.add(new MovieInputData("Short", new ArrayList<>(),
+                new ArrayList<>(List.of("Comedy")), YEAR, SHORT_DURATION));
+
+        Map<String, Integer> history = new LinkedHashMap<>();
+        history.put("Long", 1);
+        List<UserInputData> users = new ArrayList<>();
+        users.add(new UserInputData("first", "PREMIUM", history, new ArrayList<>()));
+        users.add(new UserInputData("second", "BASIC", new LinkedHashMap<>(),
+                new ArrayList<>()));
+
+        List<ActorInputData> actors = new ArrayList<>();
+        actors.add(new ActorInputData("Actor", "An actor.", new ArrayList<>(List.of("Long")),
+                new LinkedHashMap<ActorsAwards, Integer>()));
+
+        return new Input(actors, users, actions, movies, new ArrayList<SerialInputData>());
+    }
+
+    /**
+     * Input Executor
+     * @param input The database and the actions, in order
+     * @param parallel True, if the runs of queries and recommendations are
+     *                 executed in parallel
+     * @return the output messages of the actions
+     */
+    private static List<String> execute(final Input input, final boolean parallel) {
+        Database instance = DatabaseLoader.loadInput(input);
+        List<String> messages = new ArrayList<>();
+        new ActionExecutor(instance, ActionRegistry.createDefault(),
+                (actionId, message) -> messages.add(message), parallel)
+                .executeAll(input.getCommands());
+        return messages;
+    }
+
+    /**
+     * Result Checker
+     * <p> Displays the expected and the actual messages of a failed check.
+     *
+     * @param name The name of the check
+     * @param actual The output messages of the log
+     * @param expected The expected messages
+     */
+    private void check(final String name, final List<String> actual,
+                       final List<String> expected) {
+        if (!actual.equals(expected)) {
+            failures++;
+            System.out.println(name + ": FAILED");
+            System.out.println("  expected " + expected);
+            System.out.println("  actual   " + actual);
+        }
+    }
+}
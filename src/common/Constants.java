@@ -73,6 +73,9 @@ public final class Constants {
     public static final int SINGLE_TEST = 2;
     public static final int LARGE_TEST = 3;
     public static final int MAX_LENGTH = 50;
+    public static final String PIPELINED_OPTION = "--pipelined";
+    public static final String SEQUENTIAL_OPTION = "--sequential";
+    public static final String PARALLEL_THRESHOLD_OPTION = "--parallel-threshold=";
 
     // add any constants you think you may use
 }
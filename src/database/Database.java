@@ -7,11 +7,16 @@ import entertainment.Series;
 import entertainment.Video;
 import user.User;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * Class contains information about a Database
@@ -23,6 +28,10 @@ import java.util.stream.Collectors;
  * @since Nov 2021
  */
 public class Database {
+    /**
+     * All genres, indexed by their ordinal
+     */
+    private static final Genre[] GENRES = Genre.values();
     /**
      * List of Movies
      */
@@ -39,6 +48,64 @@ public class Database {
      * List of Users
      */
     private List<User> users = new ArrayList<>();
+    /**
+     * List of all Videos, indexed by their id - movies come before series
+     */
+    private List<Video> videos = new ArrayList<>();
+    /**
+     * Index of Videos by Title - movies take precedence over series
+     */
+    private Map<String, Video> videosByTitle = new HashMap<>();
+    /**
+     * Index of Users by Username
+     */
+    private Map<String, User> usersByName = new HashMap<>();
+    /**
+     * Posting lists - for each Genre, the ids of the videos having it
+     */
+    private EnumMap<Genre, BitSet> videosByGenre = new EnumMap<>(Genre.class);
+    /**
+     * Year index - for each release year, in ascending order, the ids of the videos
+     */
+    private TreeMap<Integer, BitSet> videosByYear = new TreeMap<>();
+    /**
+     * Reverse index from each video id to the actors that played in it
+     */
+    private List<List<Actor>> actorsByVideo = new ArrayList<>();
+    /**
+     * Columnar store of the hot metrics of all videos
+     */
+    private VideoMetrics metrics = new VideoMetrics(videos);
+    /**
+     * Total number of views of the videos having each Genre, indexed by ordinal
+     */
+    private int[] genreViews = new int[Genre.values().length];
+    /**
+     * Genres sorted by their number of views - null when it needs sorting again
+     */
+    private volatile List<Genre> sortedGenres;
+    /**
+     * Order of the most viewed videos - by views, then by title
+     */
+    private final Comparator<Video> viewsOrder = Comparator
+            .comparingInt((Video video) -> metrics.getViews(video.getId()))
+            .thenComparing(Video::getTitle)
+            .thenComparingInt(Video::getId);
+    /**
+     * Viewed movies, in ascending order of views and titles
+     */
+    private TreeSet<Video> mostViewedMovies = new TreeSet<>(viewsOrder);
+    /**
+     * Viewed series, in ascending order of views and titles
+     */
+    private TreeSet<Video> mostViewedSeries = new TreeSet<>(viewsOrder);
+    /**
+     * Active users, in ascending order of activity score and usernames
+     */
+    private TreeSet<User> mostActiveUsers = new TreeSet<>(Comparator
+            .comparingInt(User::getActivityCounter)
+            .thenComparing(User::getUsername)
+            .thenComparingInt(User::getId));
 
     /**
      * Default Constructor
@@ -52,43 +119,293 @@ public class Database {
      * Video Search by Name
      * <p> This method returns the video having the given name
      * and null if there is no such named video in the database.
-     * <p> We first search the name in the Movie list and then
-     * in the Series list.
+     * <p> The lookup is made in the title index, in which movies
+     * are registered before series.
      *
      * @param name the name of the searched video
      * @return the video, or null if the specified name
      * is not in the database
      */
     public Video getVideoByName(final String name) {
-        for (Movie movie:movies) {
-            if (movie.getTitle().equals(name)) {
-                return movie;
+        return videosByTitle.get(name);
+    }
+
+    /**
+     * Video Search by Id
+     * @param id the id of the video
+     * @return the video having the given id
+     */
+    public Video getVideoById(final int id) {
+        return videos.get(id);
+    }
+
+    /**
+     * Videos Counter
+     * @return the total number of videos in the database, which is also
+     * the upper bound of the video ids
+     */
+    public int countVideos() {
+        return videos.size();
+    }
+
+    /**
+     * Movie Adder
+     * <p> Stores the movie in the list of movies, gives it the next free id
+     * and registers its title in the title index, unless the title is
+     * already taken.
+     * <p> Movies are expected to be added before series, so that the
+     * video ids follow the database order.
+     *
+     * @param movie the movie
+     */
+    public void addMovie(final Movie movie) {
+        movies.add(movie);
+        indexVideo(movie);
+    }
+
+    /**
+     * Series Adder
+     * <p> Stores the series in the list of series, gives it the next free id
+     * and registers its title in the title index, unless the title is
+     * already taken.
+     *
+     * @param serial the series
+     */
+    public void addSeries(final Series serial) {
+        series.add(serial);
+        indexVideo(serial);
+    }
+
+    /**
+     * Video Indexer
+     * @param video the video that receives the next free id
+     */
+    private void indexVideo(final Video video) {
+        video.setId(videos.size());
+        videos.add(video);
+        videosByTitle.putIfAbsent(video.getTitle(), video);
+        actorsByVideo.add(new ArrayList<>());
+        for (Genre genre : video.getGenres()) {
+            if (genre != null) {
+                videosByGenre.computeIfAbsent(genre, (key) -> new BitSet()).set(video.getId());
             }
         }
-        for (Series s : this.series) {
-            if (s.getTitle().equals(name)) {
-                return s;
+        videosByYear.computeIfAbsent(video.getYear(), (key) -> new BitSet()).set(video.getId());
+    }
+
+    /**
+     * Genre Posting List Getter
+     * @param genre The genre
+     * @return the ids of the videos having the genre - must not be modified
+     */
+    public BitSet getVideosByGenre(final Genre genre) {
+        return videosByGenre.getOrDefault(genre, new BitSet());
+    }
+
+    /**
+     * Genres Posting Lists Union
+     * <p> Only the posting lists of the genres set in the mask are visited.
+     *
+     * @param genreMask The mask of the genres, one bit for each Genre
+     *                  ordinal, see VideoMetrics.genreMask
+     * @return the ids of the videos having at least one of the genres
+     */
+    public BitSet getVideosByGenres(final long genreMask) {
+        BitSet ids = new BitSet(videos.size());
+        for (long bits = genreMask; bits != 0; bits &= bits - 1) {
+            BitSet postings = videosByGenre.get(GENRES[Long.numberOfTrailingZeros(bits)]);
+            if (postings != null) {
+                ids.or(postings);
             }
         }
-        return null;
+        return ids;
+    }
+
+    /**
+     * Video Index Builder
+     * <p> Renumbers the videos, movies first, and rebuilds the title index
+     * and the metrics store.
+     */
+    private void indexVideos() {
+        videos = new ArrayList<>();
+        videosByTitle = new HashMap<>();
+        actorsByVideo = new ArrayList<>();
+        videosByGenre = new EnumMap<>(Genre.class);
+        videosByYear = new TreeMap<>();
+        movies.forEach(this::indexVideo);
+        series.forEach(this::indexVideo);
+        actors.forEach(this::indexActor);
+        loadMetrics();
+    }
+
+    /**
+     * Years Index Lookup
+     * @param years The release years
+     * @return the ids of the videos released in one of the given years
+     */
+    public BitSet getVideosByYears(final int[] years) {
+        BitSet ids = new BitSet(videos.size());
+        for (int year : years) {
+            if (videosByYear.containsKey(year)) {
+                ids.or(videosByYear.get(year));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Years Range Index Lookup
+     * <p> Only the years of the range that have videos are visited.
+     *
+     * @param from The first year of the range, inclusive
+     * @param to The last year of the range, inclusive
+     * @return the ids of the videos released in the range of years
+     */
+    public BitSet getVideosByYearRange(final int from, final int to) {
+        BitSet ids = new BitSet(videos.size());
+        if (from <= to) {
+            videosByYear.subMap(from, true, to, true).values().forEach(ids::or);
+        }
+        return ids;
+    }
+
+    /**
+     * Actor Adder
+     * <p> Stores the actor in the list of actors and registers it in the
+     * reverse index of each video from its filmography.
+     *
+     * @param actor the actor
+     */
+    public void addActor(final Actor actor) {
+        actors.add(actor);
+        indexActor(actor);
+    }
+
+    /**
+     * Actor Indexer
+     * <p> An actor is registered once for a video, even if the video
+     * appears several times in its filmography.
+     *
+     * @param actor the actor
+     */
+    private void indexActor(final Actor actor) {
+        for (Video video : actor.getVideos()) {
+            List<Actor> cast = actorsByVideo.get(video.getId());
+            if (cast.isEmpty() || cast.get(cast.size() - 1) != actor) {
+                cast.add(actor);
+            }
+        }
+    }
+
+    /**
+     * Actors Search by Video
+     * <p> This method is used for updating the average rating of the
+     * actors once a video is rated.
+     *
+     * @param video The video
+     * @return the list of actors that played in the video
+     */
+    public List<Actor> getActorsByVideo(final Video video) {
+        return actorsByVideo.get(video.getId());
+    }
+
+    /**
+     * Metrics Loader
+     * <p> Builds the metrics store, the views of each genre and the rankings
+     * of the most viewed videos from the current state of all videos.
+     * This is done once all videos and users are in the database, since users
+     * bring views and favorites to the videos.
+     */
+    public void loadMetrics() {
+        metrics = new VideoMetrics(videos);
+        genreViews = new int[Genre.values().length];
+        videos.forEach((video) -> addGenreViews(video, video.getCountViews()));
+
+        mostViewedMovies = new TreeSet<>(viewsOrder);
+        mostViewedSeries = new TreeSet<>(viewsOrder);
+        movies.stream()
+                .filter((movie) -> movie.getCountViews() != 0)
+                .forEach(mostViewedMovies::add);
+        series.stream()
+                .filter((serial) -> serial.getCountViews() != 0)
+                .forEach(mostViewedSeries::add);
+    }
+
+    /**
+     * Metrics Getter
+     * @return the columnar store of video metrics
+     */
+    public VideoMetrics getMetrics() {
+        return metrics;
     }
 
     /**
      * User Search by Name
      * <p> Given a name, this method returns the user in the database
      * having the specified name, or null in case it doesn't exist.
+     * <p> The lookup is made in the username index.
      *
      * @param name The name of the searched User
      * @return the user, or null if the specified name is not in the
      * database
      */
     public User getUserByName(final String name) {
-        for (User user : users) {
-            if (user.getUsername().equals(name)) {
-                return user;
+        return usersByName.get(name);
+    }
+
+    /**
+     * User Adder
+     * <p> Stores the user in the list of users, gives it the next free id
+     * and registers its username in the username index, unless the username
+     * is already taken.
+     *
+     * @param user the user
+     */
+    public void addUser(final User user) {
+        user.setId(users.size());
+        users.add(user);
+        usersByName.putIfAbsent(user.getUsername(), user);
+    }
+
+    /**
+     * User Index Builder
+     * <p> Renumbers the users in list order and rebuilds the username index
+     * and the ranking of the most active users.
+     */
+    private void indexUsers() {
+        usersByName = new HashMap<>();
+        mostActiveUsers.clear();
+        for (int id = 0; id < users.size(); id++) {
+            users.get(id).setId(id);
+            usersByName.putIfAbsent(users.get(id).getUsername(), users.get(id));
+            if (users.get(id).getActivityCounter() != 0) {
+                mostActiveUsers.add(users.get(id));
             }
         }
-        return null;
+    }
+
+    /**
+     * Activity Updater
+     * <p> This method increments the activity score of a user and moves
+     * the user to its new position in the ranking of the most active users.
+     * The user has to be taken out before its score changes, since the score
+     * is part of its key.
+     *
+     * @param user The user
+     */
+    public void addActivity(final User user) {
+        mostActiveUsers.remove(user);
+        user.setActivityCounter(user.getActivityCounter() + 1);
+        mostActiveUsers.add(user);
+    }
+
+    /**
+     * Most Active Users Getter
+     * @return the users with a non-zero activity score, in ascending order of
+     * score and then of usernames - must not be modified
+     */
+    public NavigableSet<User> getMostActiveUsers() {
+        return mostActiveUsers;
     }
 
     /**
@@ -96,63 +413,130 @@ public class Database {
      * <p> Given a user, this method returns the list of videos
      * from the database that the user hasn't yet watched. This method
      * is used for recommendation actions.
+     * <p> The unseen videos are the complement of the user's set of watched
+     * ids. Since ids follow the database order, movies come before series.
      *
      * @param user The user
      * @return The list of unseen videos by user
      */
     public List<Video> getUnseenVideosByUser(final User user) {
         List<Video> unseenVideos = new ArrayList<>();
+        BitSet watched = user.getWatchedVideos();
 
-        movies.stream()
-                .filter((movie) -> !user.hasWatchedVideo(movie))
-                .forEach(unseenVideos::add);
-
-        series.stream()
-                .filter((s) -> !user.hasWatchedVideo(s))
-                .forEach(unseenVideos::add);
+        for (int id = watched.nextClearBit(0); id < videos.size();
+             id = watched.nextClearBit(id + 1)) {
+            unseenVideos.add(videos.get(id));
+        }
 
         return unseenVideos;
     }
 
+    /**
+     * Unseen Video Ids
+     * @param user The user
+     * @return the ids of the videos the user hasn't yet watched
+     */
+    public BitSet getUnseenIdsByUser(final User user) {
+        BitSet unseenIds = (BitSet) user.getWatchedVideos().clone();
+        unseenIds.flip(0, videos.size());
+        return unseenIds;
+    }
+
+    /**
+     * First Unseen Video
+     * @param user The user
+     * @return the first video in the database that the user hasn't yet watched,
+     * or null if the user has watched all of them
+     */
+    public Video getFirstUnseenVideoByUser(final User user) {
+        int id = user.getWatchedVideos().nextClearBit(0);
+        if (id < videos.size()) {
+            return videos.get(id);
+        }
+        return null;
+    }
+
     /**
      * Sorted Genres
      * <p> This method is used for computing the sorted Genres
-     * We sort genres by the total number of views of the movies with the
+     * We sort genres by the total number of views of the videos with the
      * specified genre.
-     * <p> We first use a Map that stores for each Genre the total number of views.
-     * We iterate through the List of Movies and Series from the Database and
-     * update the value from the corresponding genre in the hashmap.
-     * <p> We then store each entry in a List and sort it in descendant order
-     * comparing the number of views.
-     * <p> In the end we put in the final list the genres and return it.
+     * <p> The total number of views of each Genre is kept up to date in an
+     * array indexed by the genre's ordinal, so we only sort the genres, and
+     * only when the totals have changed since the last call. Genres having
+     * the same total keep their declaration order.
+     * <p> Only the genres of the videos in the database are returned.
+     * <p> Concurrent readers may sort the genres more than once, but they
+     * always see a fully sorted list.
      *
      * @return the list of sorted Genres in descendant order, sorted by the number
      * of views
      */
     public List<Genre> getSortedGenres() {
-        HashMap<Genre, Integer> genresUtil = new HashMap<>();
-        ArrayList<Genre> genres = new ArrayList<>();
-
-        for (Movie movie : movies) {
-            for (Genre genre : movie.getGenres()) {
-                genresUtil.merge(genre, movie.getCountViews(), Integer::sum);
-            }
+        List<Genre> cached = sortedGenres;
+        if (cached == null) {
+            List<Genre> genres = new ArrayList<>(videosByGenre.keySet());
+            genres.sort((Genre g1, Genre g2) ->
+                    Integer.compare(genreViews[g2.ordinal()], genreViews[g1.ordinal()]));
+            cached = Collections.unmodifiableList(genres);
+            sortedGenres = cached;
         }
-        for (Series serial : this.series) {
-            for (Genre genre : serial.getGenres()) {
-                genresUtil.merge(genre, serial.getCountViews(), Integer::sum);
-            }
+        return cached;
+    }
+
+    /**
+     * Views Updater
+     * <p> This method adds new views to a video in the metrics store and in
+     * the total number of views of each of its genres.
+     * <p> The video is also moved to its new position in the ranking of the
+     * most viewed videos. It has to be taken out before its views change,
+     * since they are part of its key.
+     * <p> The counter of the video itself is updated by the caller.
+     *
+     * @param video The video
+     * @param count The number of new views
+     */
+    public void addViews(final Video video, final int count) {
+        TreeSet<Video> mostViewed = video instanceof Movie ? mostViewedMovies : mostViewedSeries;
+
+        mostViewed.remove(video);
+        metrics.addViews(video.getId(), count);
+        if (metrics.getViews(video.getId()) != 0) {
+            mostViewed.add(video);
         }
-        List<Map.Entry<Genre, Integer>> aux = new ArrayList<>(genresUtil.entrySet());
-        Comparator<Map.Entry<Genre, Integer>> viewsComp = (Map.Entry<Genre, Integer> e1,
-                                                           Map.Entry<Genre, Integer> e2) ->
-                                                    Integer.compare(e2.getValue(), e1.getValue());
+        addGenreViews(video, count);
+    }
+
+    /**
+     * Most Viewed Movies Getter
+     * @return the viewed movies, in ascending order of views and then
+     * of titles - must not be modified
+     */
+    public NavigableSet<Video> getMostViewedMovies() {
+        return mostViewedMovies;
+    }
 
-        aux = (List<Map.Entry<Genre, Integer>>) aux.stream()
-                .sorted(viewsComp).collect(Collectors.toList());
+    /**
+     * Most Viewed Series Getter
+     * @return the viewed series, in ascending order of views and then
+     * of titles - must not be modified
+     */
+    public NavigableSet<Video> getMostViewedSeries() {
+        return mostViewedSeries;
+    }
 
-        aux.forEach((entry) -> genres.add((entry.getKey())));
-        return genres;
+    /**
+     * Genres Views Updater
+     * @param video The video
+     * @param count The number of views added to each genre of the video
+     */
+    private void addGenreViews(final Video video, final int count) {
+        for (Genre genre : video.getGenres()) {
+            if (genre != null) {
+                genreViews[genre.ordinal()] += count;
+            }
+        }
+        sortedGenres = null;
     }
 
     /**
@@ -169,6 +553,7 @@ public class Database {
      */
     public void setUsers(final List<User> users) {
         this.users = users;
+        indexUsers();
     }
 
     /**
@@ -185,6 +570,7 @@ public class Database {
      */
     public void setMovies(final List<Movie> movies) {
         this.movies = movies;
+        indexVideos();
     }
 
     /**
@@ -201,6 +587,7 @@ public class Database {
      */
     public void setSeries(final List<Series> series) {
         this.series = series;
+        indexVideos();
     }
 
     /**
@@ -217,5 +604,7 @@ public class Database {
      */
     public void setActors(final List<Actor> actors) {
         this.actors = actors;
+        actorsByVideo.forEach(List::clear);
+        actors.forEach(this::indexActor);
     }
 }
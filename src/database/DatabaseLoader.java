@@ -5,7 +5,6 @@ import entertainment.Movie;
 import entertainment.Series;
 import fileio.Input;
 import user.User;
-import java.util.List;
 
 
 /**
@@ -28,6 +27,9 @@ public final class DatabaseLoader {
      * Load Input
      * <p> This method stores each movie, series, actor and
      * user from the input into a new database instance.
+     * <p> Videos, actors and users are added through the database, so that its
+     * indexes and user ids are built in the same pass. The video metrics
+     * are loaded last, once users have added their views and favorites.
      *
      * @param input The input containing data
      * @return a Database instance, with actors, videos and users set from
@@ -36,18 +38,15 @@ public final class DatabaseLoader {
     public static Database loadInput(final Input input) {
         Database instance = new Database();
 
-        List<Movie> movies = instance.getMovies();
-        List<Series> series = instance.getSeries();
-        List<User> users = instance.getUsers();
-        List<Actor> actors = instance.getActors();
+        input.getMovies().forEach((movieData) -> instance.addMovie(new Movie(movieData)));
 
-        input.getMovies().forEach((movieData) -> movies.add(new Movie(movieData)));
+        input.getSerials().forEach((serialData) -> instance.addSeries(new Series(serialData)));
 
-        input.getSerials().forEach((serialData) -> series.add(new Series(serialData)));
+        input.getActors().forEach((actorData) -> instance.addActor(new Actor(actorData, instance)));
 
-        input.getActors().forEach((actorData) -> actors.add(new Actor(actorData, instance)));
+        input.getUsers().forEach((userData) -> instance.addUser(new User(userData, instance)));
 
-        input.getUsers().forEach((userData) -> users.add(new User(userData, instance)));
+        instance.loadMetrics();
 
         return instance;
     }
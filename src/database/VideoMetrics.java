@@ -0,0 +1,212 @@
+package database;
+
+import entertainment.Genre;
+import entertainment.Video;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Class contains the hot metrics of all videos in the Database
+ * <p> Queries compare videos by views, favorites, rating, duration and
+ * filter them by year and genre. Instead of reading these fields from
+ * scattered Video objects, we store them in primitive arrays indexed by
+ * the id of each video.
+ * <p> The commands that change a video update its metrics in place.
+ * Each change also increments the version of the changed dimension, so that
+ * results computed from the metrics can tell when they become outdated.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+public class VideoMetrics {
+    /**
+     * Dimensions of the metrics that can change after loading
+     * <p> Rating a video also counts as an activity of its reviewer, so the
+     * ratings dimension covers the activity of the users too.
+     */
+    public enum Dimension {
+        VIEWS, FAVORITES, RATINGS
+    }
+
+    /**
+     * Number of views of each video
+     */
+    private final int[] views;
+    /**
+     * Occurrences in the favorite lists of each video
+     */
+    private final int[] favorites;
+    /**
+     * Current rating of each video
+     */
+    private final double[] ratings;
+    /**
+     * Number of rating grades given to each video
+     */
+    private final int[] ratingCounts;
+    /**
+     * Duration of each video
+     */
+    private final int[] durations;
+    /**
+     * Release year of each video
+     */
+    private final int[] years;
+    /**
+     * Genres of each video, one bit for each Genre ordinal
+     */
+    private final long[] genreMasks;
+    /**
+     * Number of changes of each dimension, indexed by its ordinal
+     */
+    private final long[] versions = new long[Dimension.values().length];
+
+    /**
+     * Constructor
+     * <p> Creates the metrics store from the list of videos indexed by id,
+     * copying the current state of each video.
+     *
+     * @param videos List of all videos, indexed by their id
+     */
+    public VideoMetrics(final List<Video> videos) {
+        int size = videos.size();
+        views = new int[size];
+        favorites = new int[size];
+        ratings = new double[size];
+        ratingCounts = new int[size];
+        durations = new int[size];
+        years = new int[size];
+        genreMasks = new long[size];
+
+        for (int id = 0; id < size; id++) {
+            Video video = videos.get(id);
+            views[id] = video.getCountViews();
+            favorites[id] = video.getCountFavorites();
+            ratings[id] = video.getRating();
+            durations[id] = video.getDuration();
+            years[id] = video.getYear();
+            genreMasks[id] = genreMask(video.getGenres());
+        }
+    }
+
+    /**
+     * Genre Mask Calculator
+     * <p> Unknown (null) genres are ignored.
+     *
+     * @param genres Collection of genres
+     * @return the mask having one bit set for each given genre
+     */
+    public static long genreMask(final Collection<Genre> genres) {
+        long mask = 0;
+        for (Genre genre : genres) {
+            if (genre != null) {
+                mask |= 1L << genre.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Views Updater
+     * @param id The id of the video
+     * @param count The number of new views
+     */
+    public void addViews(final int id, final int count) {
+        views[id] += count;
+        versions[Dimension.VIEWS.ordinal()]++;
+    }
+
+    /**
+     * Favorites Updater
+     * @param id The id of the video
+     */
+    public void addFavorite(final int id) {
+        favorites[id]++;
+        versions[Dimension.FAVORITES.ordinal()]++;
+    }
+
+    /**
+     * Rating Updater
+     * <p> Stores the new rating of a video that has just received a grade.
+     *
+     * @param id The id of the video
+     * @param rating The rating of the video after the grade
+     */
+    public void addRating(final int id, final double rating) {
+        ratings[id] = rating;
+        ratingCounts[id]++;
+        versions[Dimension.RATINGS.ordinal()]++;
+    }
+
+    /**
+     * Version Getter
+     * @param dimension The dimension of the metrics
+     * @return the number of changes of the dimension since loading
+     */
+    public long getVersion(final Dimension dimension) {
+        return versions[dimension.ordinal()];
+    }
+
+    /**
+     * Views Getter
+     * @param id The id of the video
+     * @return the number of views
+     */
+    public int getViews(final int id) {
+        return views[id];
+    }
+
+    /**
+     * Favorites Getter
+     * @param id The id of the video
+     * @return the occurrences in the favorite lists
+     */
+    public int getFavorites(final int id) {
+        return favorites[id];
+    }
+
+    /**
+     * Rating Getter
+     * @param id The id of the video
+     * @return the rating
+     */
+    public double getRating(final int id) {
+        return ratings[id];
+    }
+
+    /**
+     * Rating Count Getter
+     * @param id The id of the video
+     * @return the number of grades given to the video
+     */
+    public int getRatingCount(final int id) {
+        return ratingCounts[id];
+    }
+
+    /**
+     * Duration Getter
+     * @param id The id of the video
+     * @return the duration
+     */
+    public int getDuration(final int id) {
+        return durations[id];
+    }
+
+    /**
+     * Year Getter
+     * @param id The id of the video
+     * @return the release year
+     */
+    public int getYear(final int id) {
+        return years[id];
+    }
+
+    /**
+     * Genre Mask Getter
+     * @param id The id of the video
+     * @return the mask of genres
+     */
+    public long getGenreMask(final int id) {
+        return genreMasks[id];
+    }
+}
@@ -4,6 +4,8 @@ import fileio.MovieInputData;
 import user.User;
 import utils.Utils;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.DoubleSummaryStatistics;
 import java.util.List;
 
 /**
@@ -25,9 +27,13 @@ public class Movie extends Video {
      */
     private List<Double> ratings;
     /**
-     * List of all reviewers
+     * Running sum and count of all given rating marks
      */
-    private ArrayList<User> reviewers = new ArrayList<>();
+    private DoubleSummaryStatistics ratingStats = new DoubleSummaryStatistics();
+    /**
+     * Ids of all reviewers
+     */
+    private BitSet reviewers = new BitSet();
 
     /**
      * Constructor
@@ -50,23 +56,27 @@ public class Movie extends Video {
 
     /**
      * Reviewer Setter
-     * <p> The user is stored in the List of reviewers. Once a reviewer is added,
+     * <p> The user's id is stored in the set of reviewers. Once a reviewer is added,
      * the given Grade is also added in the ratings list.
+     * <p> The rating of the Movie is then updated from the running sum and count
+     * of all grades, as their average.
      *
      * @param user User that sets a review
      * @param grade The review Grade
      * @param seasonIdx Optional, used for Serial Video type
      */
     public void setReviewer(final User user, final Double grade, final int seasonIdx) {
-        reviewers.add(user);
+        reviewers.set(user.getId());
         ratings.add(grade);
+        ratingStats.accept(grade);
+        rating = ratingStats.getSum() / ratingStats.getCount();
     }
 
     /**
      * Review Checker
      * <p> In order to treat the platform reviewers problem, a Movie stores
-     * each reviewer into a List. Once a user wants to execute a review command
-     * on a video, this method checks if the specified user is in the
+     * the id of each reviewer into a set. Once a user wants to execute a review command
+     * on a video, this method checks if the specified user's id is in the
      * video's reviewers. If so, returns true, not allowing the user to
      * execute another review on an already reviewed movie.
      *
@@ -76,12 +86,7 @@ public class Movie extends Video {
      * false, otherwise
      */
     public boolean isReviewedBy(final User user, final int seasonIdx) {
-        for (User reviewer : reviewers) {
-            if (reviewer.equals(user)) {
-                return true;
-            }
-        }
-        return false;
+        return reviewers.get(user.getId());
     }
 
     /**
@@ -94,23 +99,6 @@ public class Movie extends Video {
         return duration;
     }
 
-    /**
-     * Rating Average Calculator
-     * <p> From the List of ratings, we compute the average of all
-     * of them and return the final rating. If a Movie isn't reviewed
-     * we return 0 value.
-     *
-     * @return the rating of the Movie
-     */
-    public Double getRating() {
-        double average = ratings.stream().mapToDouble(rating -> rating).sum();
-        if (ratings.size() != 0) {
-            return average / ratings.size();
-        }
-
-        return 0d;
-    }
-
     /**
      * Ratings Getter
      * @return the List of all given ratings
@@ -4,7 +4,8 @@ import fileio.SerialInputData;
 import user.User;
 import utils.Utils;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.DoubleSummaryStatistics;
 
 /**
  * Class contains information about a Serial
@@ -25,9 +26,13 @@ public class Series extends Video {
      */
     private ArrayList<Season> seasons;
     /**
-     * Map that stores for each Season a List of reviewers
+     * Array that stores for each Season the ids of its reviewers
      */
-    private HashMap<Season, ArrayList<User>> reviewers;
+    private BitSet[] reviewers;
+    /**
+     * Array that stores for each Season the running sum and count of its ratings
+     */
+    private DoubleSummaryStatistics[] seasonRatings;
 
     /**
      * Constructor
@@ -36,19 +41,24 @@ public class Series extends Video {
      * on title, year, cast, number of seasons and seasons.
      * <p> For the Genres, we use the static method described in Utils
      * to parse strings to genres
-     * <p> Once a Serial is added in the Database, its map for reviewers
-     * is generated.
+     * <p> Once a Serial is added in the Database, a set of reviewers
+     * and a running sum of ratings are generated for each of its seasons.
      *
      * @param input Serial Input Data from JSON
      */
     public Series(final SerialInputData input) {
         super(input.getTitle(), input.getYear(), input.getCast());
-        this.seasons = input.getSeasons();
+        this.seasons = input.getSeasons() == null ? new ArrayList<>() : input.getSeasons();
         this.numberOfSeasons = input.getNumberSeason();
         input.getGenres().stream()
                 .forEach((genre) -> genres.add(Utils.stringToGenre(genre)));
 
-        reviewers = new HashMap<>();
+        reviewers = new BitSet[seasons.size()];
+        seasonRatings = new DoubleSummaryStatistics[seasons.size()];
+        for (int i = 0; i < reviewers.length; i++) {
+            reviewers[i] = new BitSet();
+            seasonRatings[i] = new DoubleSummaryStatistics();
+        }
     }
     /**
      * Review Checker
@@ -63,39 +73,33 @@ public class Series extends Video {
      * @return
      */
     public boolean isReviewedBy(final User user, final int seasonIdx) {
-        Season reviewedSeason = seasons.get(seasonIdx - 1);
-        ArrayList<User> seasonReviewers = reviewers.get(reviewedSeason);
-
-        if (seasonReviewers == null) {
-            return false;
-        }
-
-        for (User reviewer : seasonReviewers) {
-            if (reviewer.equals(user)) {
-                return true;
-            }
-        }
-        return false;
+        return reviewers[seasonIdx - 1].get(user.getId());
     }
     /**
      * Review Setter
-     * <p> This method adds given user to the Map of reviewers
-     * for the specified season. The given grade is then added in the
+     * <p> This method adds the id of the given user to the set of reviewers
+     * of the specified season. The given grade is then added in the
      * list of grades of the specified season.
+     * <p> The rating of the Serial is then updated as the average of the ratings
+     * of its Seasons, each of them being the average of the season's grades.
+     * Seasons without grades count as 0.
      *
      * @param user User that sets a review
      * @param grade The review Grade
      * @param seasonIdx Optional, used for Serial Video type
      */
     public void setReviewer(final User user, final Double grade, final int seasonIdx) {
-        Season reviewedSeason = seasons.get(seasonIdx - 1);
-        ArrayList<User> seasonReviewers = reviewers.get(reviewedSeason);
-        if (seasonReviewers == null) {
-            seasonReviewers = new ArrayList<>();
-        }
-        seasonReviewers.add(user);
-        reviewers.put(reviewedSeason, seasonReviewers);
+        reviewers[seasonIdx - 1].set(user.getId());
         seasons.get(seasonIdx - 1).getRatings().add(grade);
+        seasonRatings[seasonIdx - 1].accept(grade);
+
+        double averageSerial = 0;
+        for (DoubleSummaryStatistics seasonRating : seasonRatings) {
+            if (seasonRating.getCount() != 0) {
+                averageSerial += seasonRating.getSum() / seasonRating.getCount();
+            }
+        }
+        rating = averageSerial / seasons.size();
     }
 
     /**
@@ -108,27 +112,4 @@ public class Series extends Video {
     public int getDuration() {
         return seasons.stream().mapToInt(Season::getDuration).sum();
     }
-
-    /**
-     * Serial Rating Calculator
-     * <p> The Serial Rating is calculated as the average of all
-     * ratings of its Seasons.
-     *
-     * @return Rating average grade
-     */
-    public Double getRating() {
-        double averageSerial = 0;
-        double averageSeason = 0;
-
-        for (Season season : seasons) {
-            if (season.getRatings().size() != 0) {
-                averageSeason = season.getRatings().stream().mapToDouble(rating -> rating).sum();
-                averageSerial += averageSeason / season.getRatings().size();
-            }
-        }
-        if (seasons.size() != 0) {
-            return averageSerial / seasons.size();
-        }
-        return 0d;
-    }
 }
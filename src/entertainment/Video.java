@@ -15,6 +15,10 @@ import java.util.List;
  * @since Nov 2021
  */
 public abstract class Video {
+    /**
+     * Dense id, given by the Database in database order
+     */
+    protected int id;
     /**
      * Release Year
      */
@@ -40,7 +44,7 @@ public abstract class Video {
      */
     protected ArrayList<String> cast;
     /**
-     * The average rating
+     * The average rating, kept up to date by each review
      */
     protected Double rating;
 
@@ -49,7 +53,8 @@ public abstract class Video {
      * Constructor
      * <p> Creates a Video with the specified title, release year and cast
      * members. Once a Video is added in the Database, the counts of views
-     * and occurrences in the favorites lists of users are both set to null.
+     * and occurrences in the favorites lists of users are both set to null,
+     * and so is the rating.
      *
      * @param title Title of the Video
      * @param year Release Year
@@ -61,6 +66,7 @@ public abstract class Video {
         this.cast = cast;
         this.countFavorites = 0;
         this.countViews = 0;
+        this.rating = 0d;
     }
 
     /**
@@ -153,6 +159,22 @@ public abstract class Video {
      */
     public abstract int getDuration();
 
+    /**
+     * Id Getter
+     * @return the id of the video in the database
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Id Setter
+     * @param id The id given by the database
+     */
+    public void setId(final int id) {
+        this.id = id;
+    }
+
     /**
      * Genres Getter
      * @return the list of genres of a video
@@ -187,10 +209,13 @@ public abstract class Video {
 
     /**
      * Rating Grade Getter
+     * <p> The rating is updated by each child-class when a review is set,
+     * so this method doesn't compute anything.
+     *
      * @return the rating of the Video
      */
     public Double getRating() {
-        return 0d;
+        return rating;
     }
 
     /**
@@ -0,0 +1,437 @@
+package fileio;
+
+import actor.ActorsAwards;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import common.Constants;
+import entertainment.Season;
+import utils.Utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * The class reads and parses the data from the tests, as a stream
+ * <p> Unlike InputLoader, the file is never held as a whole JSON tree. The
+ * parser reads it token by token, and only one actor, user, video or action
+ * at a time is read as a tree and transformed into its input data. The
+ * objects are the same the InputLoader creates.
+ * <p> The database is read first, and then the actions are read one at a
+ * time, as they are requested, so the memory used is bounded by the size of
+ * the database and not by the size of the file.
+ * <p> The bound doesn't hold for an input listing its actions before the
+ * database: that whole array of actions is read as one tree, see
+ * readDatabase.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+public final class StreamingInputLoader implements Closeable {
+    /**
+     * Reads each element as a tree
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+    /**
+     * The parser of the input file
+     */
+    private final JsonParser parser;
+    /**
+     * The actions, if they are found before the database - the whole array
+     * is held as one tree
+     */
+    private JsonNode bufferedActions;
+    /**
+     * True, if the database has been read
+     */
+    private boolean databaseRead;
+    /**
+     * Number of results of the queries not giving one
+     */
+    private int size;
+
+    /**
+     * Constructor
+     * @param inputPath The path to the input file
+     * @throws IOException in case of exceptions to reading
+     */
+    public StreamingInputLoader(final String inputPath) throws IOException {
+        this.parser = mapper.getFactory().createParser(new File(inputPath));
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.close();
+            throw new IOException("The input " + inputPath + " is not a JSON object");
+        }
+    }
+
+    /**
+     * The method reads the database
+     * <p> The actions found before the database are kept as a tree, to be
+     * read after it, since their default number of results depends on it.
+     * Reading that tree loads the whole array of actions in memory as JSON
+     * nodes, so such an input is not streamed. The actions are decoded one
+     * at a time afterwards, as usual.
+     *
+     * @return an Input object, without actions
+     * @throws IOException in case of exceptions to reading
+     */
+    public Input readDatabase() throws IOException {
+        List<ActorInputData> actors = null;
+        List<UserInputData> users = null;
+        List<MovieInputData> movies = null;
+        List<SerialInputData> serials = null;
+
+        while (!databaseRead && parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (Constants.DATABASE.equals(field) && parser.currentToken()
+                    == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String section = parser.currentName();
+                    parser.nextToken();
+                    switch (section) {
+                        case Constants.ACTORS -> actors = readList(this::toActor);
+                        case Constants.USERS -> users = readList(this::toUser);
+                        case Constants.MOVIES -> movies = readList(this::toMovie);
+                        case Constants.SHOWS -> serials = readList(this::toSerial);
+                        default -> parser.skipChildren();
+                    }
+                }
+                databaseRead = true;
+            } else if (Constants.ACTIONS.equals(field)
+                    && parser.currentToken() == JsonToken.START_ARRAY) {
+                bufferedActions = mapper.readTree(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!databaseRead) {
+            throw new IOException("The input has no database");
+        }
+
+        if (actors == null) {
+            System.out.println("NU EXISTA ACTORI");
+        }
+        if (users == null) {
+            System.out.println("NU EXISTA UTILIZATORI");
+        }
+        if (serials == null) {
+            System.out.println("NU EXISTA SERIALE");
+        }
+        if (movies == null) {
+            System.out.println("NU EXISTA FILME");
+        }
+
+        size = Math.max(Math.max(count(movies) + count(serials), count(users)), count(actors));
+        return new Input(actors, users, null, movies, serials);
+    }
+
+    /**
+     * The method reads the actions from input file, one at a time
+     * <p> The database must be read first. The iterator reads the file as it
+     * advances, so it must be used before this loader is closed. Actions of
+     * unknown types are skipped, like in InputLoader.
+     *
+     * @return the actions, in order, or null if the input has no actions
+     * @throws IOException in case of exceptions to reading
+     */
+    public Iterator<ActionInputData> readActions() throws IOException {
+        if (!databaseRead) {
+            throw new IllegalStateException("The database must be read before the actions");
+        }
+        if (bufferedActions != null) {
+            return new ActionIterator(bufferedActions.elements());
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (Constants.ACTIONS.equals(field)
+                    && parser.currentToken() == JsonToken.START_ARRAY) {
+                return new ActionIterator(null);
+            }
+            parser.skipChildren();
+        }
+        System.out.println("NU EXISTA COMENZI");
+        return null;
+    }
+
+    /**
+     * Closes the input file
+     * @throws IOException in case of exceptions to reading
+     */
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    /**
+     * Class represents the actions of the input, read as they are requested
+     */
+    private final class ActionIterator implements Iterator<ActionInputData> {
+        /**
+         * The actions found before the database, or null if the actions are
+         * read from the parser
+         */
+        private final Iterator<JsonNode> nodes;
+        /**
+         * The next action, once read
+         */
+        private ActionInputData next;
+        /**
+         * True, if all the actions have been read
+         */
+        private boolean done;
+
+        ActionIterator(final Iterator<JsonNode> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !done) {
+                JsonNode node = nextNode();
+                if (node == null) {
+                    done = true;
+                } else {
+                    next = toAction(node);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public ActionInputData next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ActionInputData current = next;
+            next = null;
+            return current;
+        }
+
+        /**
+         * Node Getter
+         * @return the tree of the next action, or null if there is none
+         */
+        private JsonNode nextNode() {
+            if (nodes != null) {
+                return nodes.hasNext() ? nodes.next() : null;
+            }
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    return null;
+                }
+                return mapper.readTree(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Reads the array the parser is positioned on, one element at a time
+     * @param decoder Transforms the tree of an element into its input data
+     * @param <T> The type of the input data
+     * @return the input data of the elements, or null if there is no array
+     * @throws IOException in case of exceptions to reading
+     */
+    private <T> List<T> readList(final Function<JsonNode, T> decoder) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            list.add(decoder.apply(mapper.readTree(parser)));
+        }
+        return list;
+    }
+
+    /**
+     * Reads an actor
+     * @param node The tree of the actor
+     * @return the input data of the actor
+     */
+    private ActorInputData toActor(final JsonNode node) {
+        Map<ActorsAwards, Integer> awards = new LinkedHashMap<>();
+        JsonNode jsonAwards = node.get(Constants.AWARDS);
+        if (jsonAwards != null) {
+            for (JsonNode award : jsonAwards) {
+                awards.put(Utils.stringToAwards(text(award, Constants.AWARD_TYPE)),
+                        integer(award, Constants.NUMBER_OF_AWARDS));
+            }
+        }
+        return new ActorInputData(text(node, Constants.NAME),
+                text(node, Constants.DESCRIPTION),
+                strings(node, Constants.FILMOGRAPHY), awards);
+    }
+
+    /**
+     * Reads a user
+     * @param node The tree of the user
+     * @return the input data of the user
+     */
+    private UserInputData toUser(final JsonNode node) {
+        Map<String, Integer> history = new LinkedHashMap<>();
+        JsonNode jsonHistory = node.get(Constants.HISTORY);
+        if (jsonHistory != null && !jsonHistory.isNull()) {
+            for (JsonNode movie : jsonHistory) {
+                history.put(text(movie, Constants.NAME), integer(movie, Constants.NUMBER_VIEWS));
+            }
+        } else {
+            System.out.println("NU ESTE VIZIONAT NICIUN FILM");
+        }
+        return new UserInputData(text(node, Constants.USERNAME),
+                text(node, Constants.SUBSCRIPTION), history,
+                strings(node, Constants.FAVORITE_MOVIES));
+    }
+
+    /**
+     * Reads a movie
+     * @param node The tree of the movie
+     * @return the input data of the movie
+     */
+    private MovieInputData toMovie(final JsonNode node) {
+        return new MovieInputData(text(node, Constants.NAME), strings(node, Constants.ACTORS),
+                strings(node, Constants.GENRES), integer(node, Constants.YEAR),
+                integer(node, Constants.DURATION));
+    }
+
+    /**
+     * Reads a serial
+     * @param node The tree of the serial
+     * @return the input data of the serial
+     */
+    private SerialInputData toSerial(final JsonNode node) {
+        ArrayList<Season> seasons = null;
+        JsonNode jsonSeasons = node.get(Constants.SEASONS);
+        if (jsonSeasons != null && !jsonSeasons.isNull()) {
+            seasons = new ArrayList<>();
+            for (JsonNode season : jsonSeasons) {
+                seasons.add(new Season(integer(season, Constants.CURRENT_SEASON),
+                        integer(season, Constants.DURATION)));
+            }
+        }
+        return new SerialInputData(text(node, Constants.NAME), strings(node, Constants.CAST),
+                strings(node, Constants.GENRES), integer(node, Constants.NUMBER_OF_SEASONS),
+                seasons, integer(node, Constants.YEAR));
+    }
+
+    /**
+     * Reads an action
+     * @param node The tree of the action
+     * @return the input data of the action, or null if its type is unknown
+     */
+    private ActionInputData toAction(final JsonNode node) {
+        String actionType = text(node, Constants.ACTION_TYPE);
+        if (actionType == null) {
+            return null;
+        }
+        double grade = 0;
+        int season = 0;
+        int number = size;
+
+        if (has(node, Constants.SEASON)) {
+            season = integer(node, Constants.SEASON);
+        }
+        if (has(node, Constants.GRADE)) {
+            grade = Double.parseDouble(node.get(Constants.GRADE).asText());
+        }
+        if (has(node, Constants.NUMBER)) {
+            number = integer(node, Constants.NUMBER);
+        }
+
+        String genre = null;
+        String year = null;
+        ArrayList<String> awards = null;
+        ArrayList<String> words = null;
+        if (has(node, Constants.FILTERS)) {
+            JsonNode filters = node.get(Constants.FILTERS);
+            genre = text(filters, Constants.GENRE);
+            year = text(filters, Constants.YEAR);
+            awards = strings(filters, Constants.AWARDS);
+            words = strings(filters, Constants.WORDS);
+        }
+
+        return switch (actionType) {
+            case Constants.COMMAND -> new ActionInputData(integer(node, Constants.ID),
+                    actionType, text(node, Constants.TYPE), text(node, Constants.USER),
+                    text(node, Constants.TITLE), grade, season);
+            case Constants.QUERY -> new ActionInputData(integer(node, Constants.ID),
+                    actionType, text(node, Constants.OBJECT), genre, text(node, Constants.SORT),
+                    text(node, Constants.CRITERIA), year, number, words, awards);
+            case Constants.RECOMMENDATION -> new ActionInputData(integer(node, Constants.ID),
+                    actionType, text(node, Constants.TYPE), text(node, Constants.USERNAME),
+                    text(node, Constants.GENRE));
+            default -> null;
+        };
+    }
+
+    /**
+     * Field Checker
+     * @param node A JSON object
+     * @param field The name of a field
+     * @return true, if the object has a non-null value for the field
+     */
+    private static boolean has(final JsonNode node, final String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull();
+    }
+
+    /**
+     * Text Getter
+     * @param node A JSON object
+     * @param field The name of a field
+     * @return the text of the field, or null if it has no value
+     */
+    private static String text(final JsonNode node, final String field) {
+        return has(node, field) ? node.get(field).asText() : null;
+    }
+
+    /**
+     * Integer Getter
+     * @param node A JSON object
+     * @param field The name of a field, given as a number or as a text
+     * @return the integer value of the field
+     */
+    private static int integer(final JsonNode node, final String field) {
+        return Integer.parseInt(node.get(field).asText());
+    }
+
+    /**
+     * Strings Getter
+     * @param node A JSON object
+     * @param field The name of a field holding an array of strings
+     * @return a list of the strings, or null if the field has no value
+     */
+    private static ArrayList<String> strings(final JsonNode node, final String field) {
+        if (!has(node, field)) {
+            return null;
+        }
+        ArrayList<String> list = new ArrayList<>();
+        for (JsonNode element : node.get(field)) {
+            list.add(element.isNull() ? null : element.asText());
+        }
+        return list;
+    }
+
+    /**
+     * Size Getter
+     * @param list A list of input data, or null
+     * @return the size of the list, or 0 if there is none
+     */
+    private static int count(final List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+}
@@ -1,8 +1,12 @@
 package filter;
 
+import actor.Actor;
 import actor.ActorsAwards;
+import database.VideoMetrics;
 import entertainment.Genre;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -11,6 +15,11 @@ import java.util.List;
  * recommendations.
  * <p> Our platform applies filters on Actors, specifically awards and keywords
  * and on Videos, years and genres.
+ * <p> The genres, years and awards are also compiled when the filter is
+ * created: the genres and awards into bit masks and the years into a sorted
+ * array, so that checking an object takes a few bitwise operations. The
+ * compiled genres and years are also the keys of the index lookups of the
+ * database.
  *
  * @author Dumitrescu Alexandra
  * @since Nov 2021
@@ -32,11 +41,29 @@ public class Filter {
      * List of Awards
      */
     private List<ActorsAwards> awards = new ArrayList<>();
+    /**
+     * List of Ranges of Years
+     */
+    private final List<YearRange> yearRanges;
+    /**
+     * Compiled Genres, one bit for each Genre ordinal
+     */
+    private long genreMask;
+    /**
+     * Compiled Years, sorted and without duplicates
+     */
+    private int[] years = new int[0];
+    /**
+     * Compiled Awards, one bit for each ActorsAwards ordinal
+     */
+    private int awardsMask;
 
     /**
      * Default Constructor
      */
-    public Filter() { }
+    public Filter() {
+        this.yearRanges = Collections.emptyList();
+    }
 
     /**
      * Constructor
@@ -45,6 +72,8 @@ public class Filter {
      */
     public Filter(final Genre genre) {
         this.genres.add(genre);
+        this.yearRanges = Collections.emptyList();
+        compile();
     }
 
     /**
@@ -59,10 +88,109 @@ public class Filter {
      */
     public Filter(final List<Integer> year, final List<Genre> genre, final List<String> words,
                   final List<ActorsAwards> awards) {
+        this(year, genre, words, awards, Collections.emptyList());
+    }
+
+    /**
+     * Constructor
+     * <p> Creates a Filter object like the constructor above, also holding
+     * the given ranges of years. The list of ranges is copied, so the
+     * filter can't be changed through it.
+     *
+     * @param year List of expected years
+     * @param genre List of expected genres
+     * @param words List of expected keywords
+     * @param awards List of expected awards
+     * @param yearRanges List of expected ranges of years
+     */
+    public Filter(final List<Integer> year, final List<Genre> genre, final List<String> words,
+                  final List<ActorsAwards> awards, final List<YearRange> yearRanges) {
         this.year = year;
         this.words = words;
         this.awards = awards;
         this.genres = genre;
+        this.yearRanges = Collections.unmodifiableList(new ArrayList<>(yearRanges));
+        compile();
+    }
+
+    /**
+     * Filter Compiler
+     * <p> Unknown (null) genres match no video, so they are left out of
+     * the genre mask.
+     */
+    private void compile() {
+        genreMask = VideoMetrics.genreMask(genres);
+        years = year.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        awardsMask = Actor.awardsMask(awards);
+    }
+
+    /**
+     * Video Checker
+     * <p> A video matches the filter if it has one of the filtered genres
+     * and was released in one of the filtered years or ranges of years.
+     * Missing genres or years don't restrict the videos.
+     *
+     * @param videoGenreMask The mask of the genres of the video
+     * @param videoYear The release year of the video
+     * @return true, if the video matches the filter and false, otherwise
+     */
+    public boolean matchesVideo(final long videoGenreMask, final int videoYear) {
+        if (!genres.isEmpty() && (videoGenreMask & genreMask) == 0) {
+            return false;
+        }
+        if (!hasYearFilter() || Arrays.binarySearch(years, videoYear) >= 0) {
+            return true;
+        }
+        for (YearRange range : yearRanges) {
+            if (range.contains(videoYear)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Awards Checker
+     * @param actorAwardsMask The mask of the awards of an actor
+     * @return true, if the actor has all the filtered awards and false,
+     * otherwise
+     */
+    public boolean matchesAwards(final int actorAwardsMask) {
+        return (actorAwardsMask & awardsMask) == awardsMask;
+    }
+
+    /**
+     * Video Filter Checker
+     * @return true, if the filter restricts the genres or the years of the
+     * videos and false, otherwise
+     */
+    public boolean hasVideoFilter() {
+        return !genres.isEmpty() || hasYearFilter();
+    }
+
+    /**
+     * Years Checker
+     * @return true, if the filter has years or a range of years and false,
+     * otherwise
+     */
+    public boolean hasYearFilter() {
+        return years.length != 0 || !yearRanges.isEmpty();
+    }
+
+    /**
+     * Genre Mask Getter
+     * @return the mask of the filtered genres, one bit for each Genre ordinal
+     */
+    public long getGenreMask() {
+        return genreMask;
+    }
+
+    /**
+     * Year Set Getter
+     * @return the filtered years, sorted and without duplicates
+     */
+    public int[] getYearSet() {
+        return years.clone();
     }
 
     /**
@@ -81,6 +209,14 @@ public class Filter {
         return year;
     }
 
+    /**
+     * Ranges of Years Getter
+     * @return the list of ranges of years, which can't be modified
+     */
+    public List<YearRange> getYearRanges() {
+        return yearRanges;
+    }
+
     /**
      * Genres Getter
      * @return the list of Genres
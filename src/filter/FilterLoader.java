@@ -5,12 +5,17 @@ import entertainment.Genre;
 import fileio.ActionInputData;
 import utils.Utils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class represents a Filter Loader Layer
  * <p> Given the action input, a FilterLoader object loads the given input
  * in a filter object
+ * <p> Filters are interned: every distinct filter specification is parsed
+ * once, and all the actions having it share the same immutable filter.
  *
  * @author Dumitrescu Alexandra
  * @since Nov 2021
@@ -21,6 +26,15 @@ public final class FilterLoader {
      */
     private FilterLoader() { }
 
+    /**
+     * Maximum number of interned filters
+     */
+    private static final int MAX_INTERNED = 4096;
+    /**
+     * Interned filters by their specification from the input
+     */
+    private static final Map<List<List<String>>, Filter> INTERNED = new ConcurrentHashMap<>();
+
     /**
      * Filer Loader
      * <p> This method retrieves the years, genres, keywords and awards from
@@ -28,10 +42,15 @@ public final class FilterLoader {
      * <p> We first isolate the 4 Lists of strings from the given input
      * <p> If these lists contain data, we store them in new lists with
      * eventual parsing. For the words filter, we store them directly.
-     * For the years filter, we parse each year from string to integer.
+     * For the years filter, we parse each year from string to integer. A year
+     * given as "2000-2010" is parsed as a range of years, both ends included,
+     * and a filter may hold several ranges.
      * For the awards, we parse each string in award type using Utils.stringToAwards
      * static method. For the genres, we parse each genre from string to
      * corresponding genre using Utils.stringToGenre static method.
+     * <p> A filter specification that was already parsed returns the interned
+     * filter, which must not be modified. Once MAX_INTERNED filters are
+     * interned, new specifications are parsed on every call.
      *
      * @param actionInput Action Input from which we extract the filter
      * @return Parsed filter
@@ -42,14 +61,39 @@ public final class FilterLoader {
             return null;
         }
 
+        Filter interned = INTERNED.get(actionInput.getFilters());
+        if (interned != null) {
+            return interned;
+        }
+
+        Filter filter = parseFilters(actionInput.getFilters());
+        if (INTERNED.size() < MAX_INTERNED) {
+            List<List<String>> specification = new ArrayList<>();
+            actionInput.getFilters().forEach((values) -> specification.add(values == null
+                    ? null : Collections.unmodifiableList(new ArrayList<>(values))));
+            interned = INTERNED.putIfAbsent(Collections.unmodifiableList(specification), filter);
+        }
+        return interned == null ? filter : interned;
+    }
+
+    /**
+     * Filter Parser
+     * <p> Parses a filter specification as described above. The lists of the
+     * returned filter can't be modified.
+     *
+     * @param filters The years, genres, words and awards from the input
+     * @return Parsed filter
+     */
+    private static Filter parseFilters(final List<List<String>> filters) {
+
         int index = 0;
-        List<String> years = actionInput.getFilters().get(index);
+        List<String> years = filters.get(index);
         index++;
-        List<String> genres = actionInput.getFilters().get(index);
+        List<String> genres = filters.get(index);
         index++;
-        List<String> words = actionInput.getFilters().get(index);
+        List<String> words = filters.get(index);
         index++;
-        List<String> awards = actionInput.getFilters().get(index);
+        List<String> awards = filters.get(index);
 
         List<String> wordsFilter = new ArrayList<>();
         if (words != null) {
@@ -67,10 +111,23 @@ public final class FilterLoader {
         }
 
         List<Integer> yearFilter = new ArrayList<>();
+        List<YearRange> yearRanges = new ArrayList<>();
         if (years.get(0) != null) {
-            years.forEach((year) -> yearFilter.add(Integer.parseInt(year)));
+            for (String year : years) {
+                int separator = year.indexOf('-', 1);
+                if (separator < 0) {
+                    yearFilter.add(Integer.parseInt(year.trim()));
+                } else {
+                    yearRanges.add(new YearRange(
+                            Integer.parseInt(year.substring(0, separator).trim()),
+                            Integer.parseInt(year.substring(separator + 1).trim())));
+                }
+            }
         }
 
-        return new Filter(yearFilter, genresFilter, wordsFilter, awardsFilter);
+        return new Filter(Collections.unmodifiableList(yearFilter),
+                Collections.unmodifiableList(genresFilter),
+                Collections.unmodifiableList(wordsFilter),
+                Collections.unmodifiableList(awardsFilter), yearRanges);
     }
 }
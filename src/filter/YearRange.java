@@ -0,0 +1,55 @@
+package filter;
+
+/**
+ * Class contains a range of release years
+ * <p> A range is given in the input as "2000-2010" and holds both of its
+ * ends. Ranges are immutable, since the filters holding them are shared.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+public final class YearRange {
+    /**
+     * First year of the range, inclusive
+     */
+    private final int from;
+    /**
+     * Last year of the range, inclusive
+     */
+    private final int to;
+
+    /**
+     * Constructor
+     * @param from The first year of the range, inclusive
+     * @param to The last year of the range, inclusive
+     */
+    public YearRange(final int from, final int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Year Checker
+     * @param year A release year
+     * @return true, if the year is in the range and false, otherwise
+     */
+    public boolean contains(final int year) {
+        return from <= year && year <= to;
+    }
+
+    /**
+     * First Year Getter
+     * @return the first year of the range, inclusive
+     */
+    public int getFrom() {
+        return from;
+    }
+
+    /**
+     * Last Year Getter
+     * @return the last year of the range, inclusive
+     */
+    public int getTo() {
+        return to;
+    }
+}
@@ -2,19 +2,23 @@ package main;
 
 import checker.Checkstyle;
 import checker.Checker;
+import checker.RegressionChecker;
 import common.Constants;
 import database.Database;
 import database.DatabaseLoader;
-import fileio.Input;
-import fileio.InputLoader;
+import fileio.ActionInputData;
+import fileio.StreamingInputLoader;
 import fileio.Writer;
 import org.json.simple.JSONArray;
 import platform.ActionLoader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Objects;
 
 
@@ -31,10 +35,27 @@ public final class Main {
 
     /**
      * Call the main checker and the coding style checker
+     * <p> The argument "--pipelined" executes the actions through a
+     * pipeline, see ActionPipeline, and "--sequential" executes the runs of
+     * queries and recommendations one by one. The argument
+     * "--parallel-threshold=N" makes the queries select lists of at least N
+     * objects in parallel. The output is the same.
+     *
      * @param args from command line
      * @throws IOException in case of exceptions to reading / writing
      */
     public static void main(final String[] args) throws IOException {
+        for (String arg : args) {
+            if (arg.equals(Constants.PIPELINED_OPTION)) {
+                ActionLoader.setPipelined(true);
+            } else if (arg.equals(Constants.SEQUENTIAL_OPTION)) {
+                ActionLoader.setParallelRuns(false);
+            } else if (arg.startsWith(Constants.PARALLEL_THRESHOLD_OPTION)) {
+                ActionLoader.setParallelThreshold(Integer.parseInt(
+                        arg.substring(Constants.PARALLEL_THRESHOLD_OPTION.length())));
+            }
+        }
+
         File directory = new File(Constants.TESTS_PATH);
 
         Path path = Paths.get(Constants.RESULT_PATH);
@@ -60,6 +81,8 @@ public final class Main {
         checker.iterateFiles(Constants.RESULT_PATH, Constants.REF_PATH, Constants.TESTS_PATH);
         Checkstyle test = new Checkstyle();
         test.testCheckstyle();
+        RegressionChecker regressions = new RegressionChecker();
+        regressions.testRegressions();
     }
 
     /**
@@ -70,14 +93,26 @@ public final class Main {
     public static void action(final String filePath1,
                               final String filePath2) throws IOException {
 
-        InputLoader inputLoader = new InputLoader(filePath1);
-        Input input = inputLoader.readData();
+        if (ActionLoader.isPipelined()) {
+            try (StreamingInputLoader inputLoader = new StreamingInputLoader(filePath1);
+                 BufferedWriter output = Files.newBufferedWriter(Paths.get(filePath2))) {
+                Database instance = DatabaseLoader.loadInput(inputLoader.readDatabase());
+                Iterator<ActionInputData> actions = inputLoader.readActions();
+                ActionLoader.actionPipelining(actions != null ? actions
+                        : Collections.emptyIterator(), output, instance);
+            }
+            return;
+        }
 
         Writer fileWriter = new Writer(filePath2);
         JSONArray arrayResult = new JSONArray();
 
-        Database instance = DatabaseLoader.loadInput(input);
-        ActionLoader.actionLoading(input, arrayResult, fileWriter, instance);
+        try (StreamingInputLoader inputLoader = new StreamingInputLoader(filePath1)) {
+            Database instance = DatabaseLoader.loadInput(inputLoader.readDatabase());
+            Iterator<ActionInputData> actions = inputLoader.readActions();
+            ActionLoader.actionLoading(actions != null ? actions
+                    : Collections.emptyIterator(), arrayResult, fileWriter, instance);
+        }
 
         fileWriter.closeJSON(arrayResult);
     }
@@ -0,0 +1,171 @@
+package platform;
+
+import database.Database;
+import entertainment.Video;
+import fileio.ActionInputData;
+import filter.Filter;
+import filter.FilterLoader;
+import user.User;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class contains the objects an action depends on
+ * <p> Each object is resolved from the action's input the first time it is
+ * requested and kept for the lifetime of the action, so an action only pays
+ * for the objects it actually uses, and only once.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+public final class ActionContext {
+    /**
+     * The input of the action
+     */
+    private final ActionInputData actionData;
+    /**
+     * The Database instance
+     */
+    private final Database instance;
+    /**
+     * The user of the action, once resolved
+     */
+    private User user;
+    /**
+     * True, if the user has been resolved
+     */
+    private boolean userResolved;
+    /**
+     * The video of the action, once resolved
+     */
+    private Video video;
+    /**
+     * True, if the video has been resolved
+     */
+    private boolean videoResolved;
+    /**
+     * The filter of the action, once resolved
+     */
+    private Filter filter;
+    /**
+     * True, if the filter has been resolved
+     */
+    private boolean filterResolved;
+    /**
+     * The videos of the object type, once resolved
+     */
+    private List<Video> videoList;
+    /**
+     * The videos the user hasn't watched, once resolved
+     */
+    private List<Video> unseenVideos;
+    /**
+     * The ids of the videos the user hasn't watched, once resolved
+     */
+    private BitSet unseenIds;
+
+    /**
+     * Constructor
+     * @param actionData The input of the action
+     * @param instance Database instance
+     */
+    public ActionContext(final ActionInputData actionData, final Database instance) {
+        this.actionData = actionData;
+        this.instance = instance;
+    }
+
+    /**
+     * Action Data Getter
+     * @return the input of the action
+     */
+    public ActionInputData getActionData() {
+        return actionData;
+    }
+
+    /**
+     * Instance Getter
+     * @return the Database instance
+     */
+    public Database getInstance() {
+        return instance;
+    }
+
+    /**
+     * User Getter
+     * @return the user named in the input, or null if there is none
+     */
+    public User getUser() {
+        if (!userResolved) {
+            user = instance.getUserByName(actionData.getUsername());
+            userResolved = true;
+        }
+        return user;
+    }
+
+    /**
+     * Video Getter
+     * @return the video titled in the input, or null if there is none
+     */
+    public Video getVideo() {
+        if (!videoResolved) {
+            video = instance.getVideoByName(actionData.getTitle());
+            videoResolved = true;
+        }
+        return video;
+    }
+
+    /**
+     * Filter Getter
+     * @return the filter of the input, or null if there is none
+     */
+    public Filter getFilter() {
+        if (!filterResolved) {
+            filter = FilterLoader.loadFilters(actionData);
+            filterResolved = true;
+        }
+        return filter;
+    }
+
+    /**
+     * Video List Getter
+     * <p> The list is a read-only view of the movies or of the series from
+     * the database, instead of a copy.
+     *
+     * @return the movies, if the object type is "movies", and the series,
+     * otherwise
+     */
+    public List<Video> getVideoList() {
+        if (videoList == null) {
+            if (actionData.getObjectType().equals("movies")) {
+                videoList = Collections.unmodifiableList(instance.getMovies());
+            } else {
+                videoList = Collections.unmodifiableList(instance.getSeries());
+            }
+        }
+        return videoList;
+    }
+
+    /**
+     * Unseen Videos Getter
+     * @return the videos the user hasn't watched, in database order
+     */
+    public List<Video> getUnseenVideos() {
+        if (unseenVideos == null) {
+            unseenVideos = instance.getUnseenVideosByUser(getUser());
+        }
+        return unseenVideos;
+    }
+
+    /**
+     * Unseen Ids Getter
+     * @return the ids of the videos the user hasn't watched - must not be
+     * modified
+     */
+    public BitSet getUnseenIds() {
+        if (unseenIds == null) {
+            unseenIds = instance.getUnseenIdsByUser(getUser());
+        }
+        return unseenIds;
+    }
+}
@@ -0,0 +1,366 @@
+package platform;
+
+import database.Database;
+import fileio.ActionInputData;
+import fileio.Writer;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import platform.queries.QueryCache;
+import platform.recommendation.RecommendationCache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Class represents the execution of a list of actions
+ * <p> Commands change the database, while queries and recommendations only
+ * read it. The actions are therefore split into maximal runs of queries
+ * and recommendations, separated by commands. A run is executed in
+ * parallel against the state left by the previous command, and its results
+ * are written in the original order, so the output is the same as in a
+ * sequential execution.
+ * <p> An action that matches no factory executes the previous action again,
+ * which could be a command, so it is always executed sequentially. The
+ * previous action is the one of the previous input, even if its result was
+ * taken from the cache.
+ * <p> The actions are read one by one, so they can be given by a producer
+ * while they are executed. A run is executed once it is complete, or once it
+ * reaches the maximum run size, so only a bounded number of actions are held.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+public final class ActionExecutor {
+    /**
+     * Minimum number of actions of a run executed in parallel
+     */
+    private static final int MIN_PARALLEL_RUN = 2;
+    /**
+     * Maximum number of actions of a run executed together
+     */
+    private static final int MAX_RUN = 1 << 10;
+
+    /**
+     * Class represents the JSON array destination of the results
+     * <p> If a result can't be transformed, the previous one is added again.
+     */
+    private static final class ArraySink implements ResultSink {
+        /**
+         * The writer
+         */
+        private final Writer fileWriter;
+        /**
+         * JSON array storing the results
+         */
+        private final JSONArray arrayResult;
+        /**
+         * The last added result
+         */
+        private JSONObject result;
+
+        ArraySink(final Writer fileWriter, final JSONArray arrayResult) {
+            this.fileWriter = fileWriter;
+            this.arrayResult = arrayResult;
+        }
+
+        @Override
+        public void write(final int actionId, final String message) {
+            try {
+                result = fileWriter.writeFile(actionId, "", message);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            arrayResult.add(result);
+        }
+    }
+
+    /**
+     * Database instance
+     */
+    private final Database instance;
+    /**
+     * The factories of the actions
+     */
+    private final ActionRegistry registry;
+    /**
+     * The destination of the results
+     */
+    private final ResultSink sink;
+    /**
+     * True, if the runs of read-only actions are executed in parallel
+     */
+    private final boolean parallel;
+    /**
+     * Cache of the query results
+     */
+    private final QueryCache queries;
+    /**
+     * Cache of the recommendation results
+     */
+    private final QueryCache recommendations;
+    /**
+     * The last created action
+     */
+    private Action command;
+    /**
+     * The input of the last action, if its result was taken from the cache
+     * and the action was not created
+     */
+    private ActionInputData replay;
+
+    /**
+     * Constructor
+     * @param instance Database instance
+     * @param registry The factories of the actions
+     * @param fileWriter The writer
+     * @param arrayResult JSON array storing the results
+     * @param parallel True, if the runs of read-only actions are executed in
+     *                 parallel
+     */
+    public ActionExecutor(final Database instance, final ActionRegistry registry,
+                          final Writer fileWriter, final JSONArray arrayResult,
+                          final boolean parallel) {
+        this(instance, registry, new ArraySink(fileWriter, arrayResult), parallel);
+    }
+
+    /**
+     * Constructor
+     * @param instance Database instance
+     * @param registry The factories of the actions
+     * @param sink The destination of the results
+     * @param parallel True, if the runs of read-only actions are executed in
+     *                 parallel
+     */
+    public ActionExecutor(final Database instance, final ActionRegistry registry,
+                          final ResultSink sink, final boolean parallel) {
+        this.instance = instance;
+        this.registry = registry;
+        this.sink = sink;
+        this.parallel = parallel;
+        this.queries = new QueryCache(instance);
+        this.recommendations = new RecommendationCache(instance);
+    }
+
+    /**
+     * Actions Executor
+     * @param actions The input of the actions, in order
+     */
+    public void executeAll(final List<ActionInputData> actions) {
+        executeAll(actions.iterator());
+    }
+
+    /**
+     * Actions Executor
+     * <p> The iterator may block while waiting for the next action.
+     *
+     * @param actions The input of the actions, in order
+     */
+    public void executeAll(final Iterator<ActionInputData> actions) {
+        List<ActionInputData> run = new ArrayList<>();
+        while (actions.hasNext()) {
+            ActionInputData actionData = actions.next();
+            if (isReadOnly(actionData)) {
+                run.add(actionData);
+                if (run.size() >= MAX_RUN) {
+                    flush(run);
+                }
+            } else {
+                flush(run);
+                execute(actionData);
+            }
+        }
+        flush(run);
+    }
+
+    /**
+     * Run Executor
+     * <p> Executes the pending run of read-only actions and clears it.
+     *
+     * @param run The input of the actions of the run, in order
+     */
+    private void flush(final List<ActionInputData> run) {
+        if (parallel && run.size() >= MIN_PARALLEL_RUN) {
+            executeRun(run);
+        } else {
+            for (ActionInputData actionData : run) {
+                execute(actionData);
+            }
+        }
+        run.clear();
+    }
+
+    /**
+     * Read-Only Checker
+     * @param actionData The input of an action
+     * @return true, if the action is a query or a recommendation having a
+     * factory, and false otherwise
+     */
+    private boolean isReadOnly(final ActionInputData actionData) {
+        return getCache(actionData) != null && registry.getFactory(actionData) != null;
+    }
+
+    /**
+     * Cache Getter
+     * @param actionData The input of an action
+     * @return the cache of the action's results, or null for commands
+     */
+    private QueryCache getCache(final ActionInputData actionData) {
+        return switch (actionData.getActionType()) {
+            case "query" -> queries;
+            case "recommendation" -> recommendations;
+            default -> null;
+        };
+    }
+
+    /**
+     * Sequential Execution
+     * <p> Executes a single action, unless its result is cached, and writes
+     * its output message.
+     *
+     * @param actionData The input of the action
+     */
+    private void execute(final ActionInputData actionData) {
+        QueryCache cache = getCache(actionData);
+        String cacheKey = cache == null ? null : cache.getKey(actionData);
+        long version = 0;
+        if (cacheKey != null) {
+            version = cache.getVersion(actionData);
+            String message = cache.get(cacheKey, version);
+            if (message != null) {
+                write(actionData, message);
+                replay = actionData;
+                return;
+            }
+        }
+
+        Action created = registry.create(new ActionContext(actionData, instance));
+        if (created == null) {
+            Action previous = getPrevious();
+            previous.execute();
+            write(actionData, previous.getMessage());
+            return;
+        }
+
+        command = created;
+        replay = null;
+        command.execute();
+        if (cacheKey != null) {
+            cache.put(cacheKey, version, command.getMessage());
+        }
+        write(actionData, command.getMessage());
+    }
+
+    /**
+     * Previous Action Getter
+     * <p> An action whose result was taken from the cache is only created
+     * when an action matching no factory executes it again. It is executed
+     * once first, against the same state, so that its message is the same
+     * as if it had been created and executed in its turn.
+     *
+     * @return the action of the previous input
+     */
+    private Action getPrevious() {
+        if (replay != null) {
+            command = registry.create(new ActionContext(replay, instance));
+            command.execute();
+            replay = null;
+        }
+        return command;
+    }
+
+    /**
+     * Parallel Execution
+     * <p> The cached results are looked up and the other actions are created
+     * in order. Actions repeating an earlier one of the run share its result.
+     * The created actions are then executed in parallel and the results are
+     * cached and written in order.
+     * <p> An action that failed to be created or executed is created and
+     * executed again sequentially, when its result is written, so that its
+     * failure is reported like in a sequential execution.
+     * <p> The previous action of the next input is the action of the last
+     * input of the run, even if its result was cached or shared.
+     *
+     * @param run The input of the actions of the run, in order
+     */
+    private void executeRun(final List<ActionInputData> run) {
+        int size = run.size();
+        Action[] actions = new Action[size];
+        String[] messages = new String[size];
+        String[] cacheKeys = new String[size];
+        long[] versions = new long[size];
+        int[] firstIndexes = new int[size];
+        boolean[] failed = new boolean[size];
+        Map<String, Integer> firstByKey = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            ActionInputData actionData = run.get(i);
+            QueryCache cache = getCache(actionData);
+            firstIndexes[i] = i;
+            cacheKeys[i] = cache.getKey(actionData);
+            if (cacheKeys[i] != null) {
+                versions[i] = cache.getVersion(actionData);
+                messages[i] = cache.get(cacheKeys[i], versions[i]);
+                if (messages[i] != null) {
+                    continue;
+                }
+                Integer first = firstByKey.putIfAbsent(actionData.getActionType() + "|"
+                        + cacheKeys[i], i);
+                if (first != null) {
+                    firstIndexes[i] = first;
+                    continue;
+                }
+            }
+            try {
+                actions[i] = registry.create(new ActionContext(actionData, instance));
+            } catch (RuntimeException e) {
+                failed[i] = true;
+            }
+        }
+
+        IntStream.range(0, size).parallel()
+                .filter((i) -> actions[i] != null)
+                .forEach((i) -> {
+                    try {
+                        actions[i].execute();
+                    } catch (RuntimeException e) {
+                        failed[i] = true;
+                    }
+                });
+
+        for (int i = 0; i < size; i++) {
+            ActionInputData actionData = run.get(i);
+            if (failed[i]) {
+                actions[i] = registry.create(new ActionContext(actionData, instance));
+                actions[i].execute();
+            }
+            if (messages[i] == null) {
+                messages[i] = actions[firstIndexes[i]].getMessage();
+                if (actions[i] != null && cacheKeys[i] != null) {
+                    getCache(actionData).put(cacheKeys[i], versions[i], messages[i]);
+                }
+            }
+            write(actionData, messages[i]);
+        }
+
+        if (actions[size - 1] != null) {
+            command = actions[size - 1];
+            replay = null;
+        } else {
+            replay = run.get(size - 1);
+        }
+    }
+
+    /**
+     * Result Writer
+     * @param actionData The input of the action
+     * @param message The output message of the action
+     */
+    private void write(final ActionInputData actionData, final String message) {
+        sink.write(actionData.getActionId(), message);
+    }
+}
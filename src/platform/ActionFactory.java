@@ -0,0 +1,22 @@
+package platform;
+
+/**
+ * Interface describes a factory of actions
+ * <p> Factories are registered in an ActionRegistry and create the action
+ * for an input, reading its arguments through the action's context.
+ * Factories hold no state, so a single one serves all the actions of its
+ * kind.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+@FunctionalInterface
+public interface ActionFactory {
+    /**
+     * Action Creator
+     * @param context The context of the action, giving access to its input
+     *                and to the database
+     * @return the action to be executed
+     */
+    Action create(ActionContext context);
+}
@@ -1,59 +1,96 @@
 package platform;
 
-import actor.Actor;
 import database.Database;
-import entertainment.Video;
 import fileio.ActionInputData;
 import fileio.Input;
 import fileio.Writer;
 import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import platform.commands.FavoriteCommand;
-import platform.commands.RatingCommand;
-import platform.commands.ViewCommand;
-import platform.queries.actorsQuery.actorsQueriesTypes.ActorAverageQuery;
-import platform.queries.actorsQuery.actorsQueriesTypes.ActorAwardsQuery;
-import platform.queries.actorsQuery.actorsQueriesTypes.ActorFilterDescriptionQuery;
-import filter.Filter;
-import filter.FilterLoader;
-import platform.queries.usersQuery.UserQuery;
-import platform.queries.videoQuery.videosQueriesTypes.VideoFavoriteQuery;
-import platform.queries.videoQuery.videosQueriesTypes.VideoLongestQuery;
-import platform.queries.videoQuery.videosQueriesTypes.VideoMostViewed;
-import platform.queries.videoQuery.videosQueriesTypes.VideoRatingQuery;
-import platform.recommendation.BestUnseenRecommendation;
-import platform.recommendation.FavoriteRecommendation;
-import platform.recommendation.PopularRecommendation;
-import platform.recommendation.SearchRecommendation;
-import platform.recommendation.StandardRecommendation;
-import user.User;
-import utils.Utils;
+import platform.queries.Query;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.Iterator;
 
 /**
  * Class represents an Action Loader Layer
  * <p> Given the input, the Action Loader parses each input into the
  * corresponding action and in the end executes it, providing an output
  * message to the JSON array of results.
+ * <p> The objects each action depends on are resolved lazily, through an
+ * ActionContext.
  *
  * @author Dumitrescu Alexandra
  * @since Nov 2021
  */
 public final class ActionLoader {
 
+    /**
+     * True, if the runs of queries and recommendations between commands are
+     * executed in parallel
+     */
+    private static boolean parallelRuns = true;
+    /**
+     * True, if the actions are decoded, executed and written by a pipeline
+     */
+    private static boolean pipelined = false;
+    /**
+     * Minimum size of a list selected in parallel by a query
+     */
+    private static int parallelThreshold = Query.DEFAULT_PARALLEL_THRESHOLD;
+
     private ActionLoader() { }
 
+    /**
+     * Parallel Runs Setter
+     * <p> The output is the same in both modes.
+     *
+     * @param parallel True, if the runs of queries and recommendations
+     *                 between commands are executed in parallel
+     */
+    public static void setParallelRuns(final boolean parallel) {
+        parallelRuns = parallel;
+    }
+
+    /**
+     * Pipelined Mode Setter
+     * @param enabled True, if the actions are decoded, executed and written
+     *                by a pipeline, see ActionPipeline
+     */
+    public static void setPipelined(final boolean enabled) {
+        pipelined = enabled;
+    }
+
+    /**
+     * Parallel Threshold Setter
+     * <p> The output is the same for any threshold.
+     *
+     * @param threshold The minimum size of a list selected in parallel by
+     *                  a query
+     */
+    public static void setParallelThreshold(final int threshold) {
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Pipelined Mode Getter
+     * @return true, if the actions are decoded, executed and written by a
+     * pipeline
+     */
+    public static boolean isPipelined() {
+        return pipelined;
+    }
+
     /**
      * <p> For each action from the input data, this method isolates the required
      * objects and then decides which action object is going to be created.
      * <p> Using polymorphism, we use an Action Object and depending on
-     * the input's action type we create the specified action.
+     * the input's action type we create the specified action, through the
+     * factories of the default ActionRegistry.
      * <p> In the end, it executes the action and stores the output message
      * in the JSON array.
+     * <p> The results of the queries and recommendations are cached, so that
+     * an identical action asked before any change of the state it reads is
+     * not computed again. The runs of queries and recommendations between
+     * commands are executed in parallel, see ActionExecutor.
      *
      *
      * @param input Input
@@ -63,96 +100,71 @@ public final class ActionLoader {
      */
     public static void actionLoading(final Input input, final JSONArray arrayResult,
                                      final Writer fileWriter, final Database instance) {
-        Action command = null;
-        JSONObject result = null;
-
-        for (ActionInputData actionData : input.getCommands()) {
-
-            double grade = actionData.getGrade();
-            int seasonIdx = actionData.getSeasonNumber();
-            int number = actionData.getNumber();
+        actionLoading(input, arrayResult, fileWriter, instance, createRegistry());
+    }
 
-            User user = instance.getUserByName(actionData.getUsername());
-            Video video = instance.getVideoByName(actionData.getTitle());
-            Filter filter = FilterLoader.loadFilters(actionData);
-            String sortType = actionData.getSortType();
-            List<User> users = instance.getUsers();
-            List<Actor> actors = instance.getActors();
-            List<Video> videoList = new ArrayList<>();
+    /**
+     * <p> Executes the actions like the method above, creating each action
+     * through the given registry.
+     * <p> An input that matches no factory of the registry executes the
+     * previous action again.
+     *
+     * @param input Input
+     * @param arrayResult JSON array storing the results (the output messages)
+     * @param fileWriter The writer
+     * @param instance Database instance
+     * @param registry The factories of the actions
+     */
+    public static void actionLoading(final Input input, final JSONArray arrayResult,
+                                     final Writer fileWriter, final Database instance,
+                                     final ActionRegistry registry) {
+        new ActionExecutor(instance, registry, fileWriter, arrayResult, parallelRuns)
+                .executeAll(input.getCommands());
+    }
 
-            if (actionData.getObjectType() != null) {
-                if (actionData.getObjectType().equals("movies")) {
-                    videoList.addAll(instance.getMovies());
-                } else {
-                    videoList.addAll(instance.getSeries());
-                }
-            }
+    /**
+     * <p> Executes the actions like the methods above, reading each one from
+     * the given source only when it is executed, so that the list of all the
+     * actions is never built.
+     *
+     * @param source The input of the actions, in order
+     * @param arrayResult JSON array storing the results (the output messages)
+     * @param fileWriter The writer
+     * @param instance Database instance
+     */
+    public static void actionLoading(final Iterator<ActionInputData> source,
+                                     final JSONArray arrayResult, final Writer fileWriter,
+                                     final Database instance) {
+        new ActionExecutor(instance, createRegistry(), fileWriter, arrayResult, parallelRuns)
+                .executeAll(source);
+    }
 
-            switch (actionData.getActionType()) {
-                case "command":
-                    command = switch (actionData.getType()) {
-                        case "favorite" -> new FavoriteCommand(user, video);
-                        case "view" -> new ViewCommand(user, video);
-                        case "rating" -> new RatingCommand(user, video, grade, seasonIdx);
-                        default -> command;
-                    };
-                    break;
-                case "query":
-                    switch (Objects.requireNonNull(actionData.getObjectType())) {
-                        case "actors" -> {
-                            command = switch (actionData.getCriteria()) {
-                                case "average" -> new ActorAverageQuery(number, sortType, actors,
-                                        filter);
-                                case "awards" -> new ActorAwardsQuery(number, sortType, actors,
-                                        filter);
-                                case "filter_description" -> new ActorFilterDescriptionQuery(
-                                        number, sortType, actors, filter);
-                                default -> command;
-                            };
-                        }
-                        case "movies", "shows" -> {
-                            command = switch (actionData.getCriteria()) {
-                                case "ratings" -> new VideoRatingQuery(number, sortType,
-                                        videoList, filter);
-                                case "longest" -> new VideoLongestQuery(number, sortType,
-                                        videoList, filter);
-                                case "favorite" -> new VideoFavoriteQuery(number, sortType,
-                                        videoList, filter);
-                                case "most_viewed" -> new VideoMostViewed(number, sortType,
-                                        videoList, filter);
-                                default -> command;
-                            };
-                        }
-                        case "users" -> {
-                            command = new UserQuery(number, sortType, users, filter);
-                        }
-                        default -> {
-                            command = command;
-                        }
-                    }
-                case "recommendation":
-                    if (actionData.getType() != null) {
-                        command = switch (actionData.getType()) {
-                            case "standard" -> new StandardRecommendation(user, instance);
-                            case "best_unseen" -> new BestUnseenRecommendation(user, instance);
-                            case "favorite" -> new FavoriteRecommendation(user, instance);
-                            case "search" -> new SearchRecommendation(user, instance,
-                                    Utils.stringToGenre(actionData.getGenre()));
-                            case "popular" -> new PopularRecommendation(user, instance);
-                            default -> command;
-                        };
-                    }
-                default:
-            }
+    /**
+     * <p> Executes the actions like the methods above, through an
+     * ActionPipeline: the actions are decoded from the source by a reader
+     * thread and the results are written by a writer thread, while the
+     * actions are executed.
+     *
+     * @param source The input of the actions, in order
+     * @param output The destination of the JSON array of results
+     * @param instance Database instance
+     * @throws IOException in case of exceptions to writing
+     */
+    public static void actionPipelining(final Iterator<ActionInputData> source,
+                                        final java.io.Writer output,
+                                        final Database instance) throws IOException {
+        new ActionPipeline(instance, createRegistry(), parallelRuns)
+                .execute(source, output);
+    }
 
-            command.execute();
-            try {
-                result = fileWriter.writeFile(actionData.getActionId(), "",
-                        command.getMessage());
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-            arrayResult.add(result);
-        }
+    /**
+     * Registry Creator
+     * @return the default registry, creating queries with the configured
+     * parallel threshold
+     */
+    private static ActionRegistry createRegistry() {
+        ActionRegistry registry = ActionRegistry.createDefault();
+        registry.setParallelThreshold(parallelThreshold);
+        return registry;
     }
 }
@@ -0,0 +1,313 @@
+package platform;
+
+import common.Constants;
+import database.Database;
+import fileio.ActionInputData;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Class represents a pipelined execution of the actions
+ * <p> The execution has three stages, connected by bounded queues:
+ * <p> - a reader thread decodes the actions from their source
+ * <p> - the calling thread executes them, through an ActionExecutor
+ * <p> - a writer thread encodes the results and writes them
+ * <p> Decoding and writing overlap with the execution, and only a bounded
+ * number of actions and results are held between the stages, however long
+ * the list of actions is.
+ * <p> The results are written in the order of the actions, as the same JSON
+ * array Writer.closeJSON writes for them.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+public final class ActionPipeline {
+    /**
+     * Default capacity of the queues between the stages
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 10;
+
+    /**
+     * Marks the end of the actions
+     */
+    private static final ActionInputData END_OF_ACTIONS =
+            new ActionInputData(-1, null, null, null, null, 0.0, 0);
+    /**
+     * Marks the end of the results
+     */
+    private static final Result END_OF_RESULTS = new Result(-1, null);
+
+    /**
+     * Class contains the result of an action
+     */
+    private static final class Result {
+        /**
+         * The id of the action
+         */
+        private final int actionId;
+        /**
+         * The output message of the action
+         */
+        private final String message;
+
+        Result(final int actionId, final String message) {
+            this.actionId = actionId;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Class represents the actions waiting in the queue of the reader
+     */
+    private static final class QueueIterator implements Iterator<ActionInputData> {
+        /**
+         * The queue of the decoded actions
+         */
+        private final BlockingQueue<ActionInputData> queue;
+        /**
+         * The next action, once taken from the queue
+         */
+        private ActionInputData next;
+
+        QueueIterator(final BlockingQueue<ActionInputData> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = take(queue);
+            }
+            return next != END_OF_ACTIONS;
+        }
+
+        @Override
+        public ActionInputData next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ActionInputData current = next;
+            next = null;
+            return current;
+        }
+    }
+
+    /**
+     * Database instance
+     */
+    private final Database instance;
+    /**
+     * The factories of the actions
+     */
+    private final ActionRegistry registry;
+    /**
+     * True, if the runs of read-only actions are executed in parallel
+     */
+    private final boolean parallel;
+    /**
+     * Capacity of the queues between the stages
+     */
+    private final int capacity;
+
+    /**
+     * Constructor
+     * @param instance Database instance
+     * @param registry The factories of the actions
+     * @param parallel True, if the runs of read-only actions are executed in
+     *                 parallel
+     */
+    public ActionPipeline(final Database instance, final ActionRegistry registry,
+                          final boolean parallel) {
+        this(instance, registry, parallel, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * @param instance Database instance
+     * @param registry The factories of the actions
+     * @param parallel True, if the runs of read-only actions are executed in
+     *                 parallel
+     * @param capacity Capacity of the queues between the stages
+     */
+    public ActionPipeline(final Database instance, final ActionRegistry registry,
+                          final boolean parallel, final int capacity) {
+        this.instance = instance;
+        this.registry = registry;
+        this.parallel = parallel;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Pipelined Execution
+     * <p> If the execution of an action fails, the other stages are stopped
+     * and the failure is thrown, leaving the output incomplete. A failure of
+     * the reader or of the writer is thrown once the decoded actions are
+     * executed. The output is flushed, but not closed.
+     *
+     * @param source The actions, in order, decoded by the reader thread
+     * @param output The destination of the JSON array of results
+     * @throws IOException in case of exceptions to writing
+     */
+    public void execute(final Iterator<ActionInputData> source,
+                        final java.io.Writer output) throws IOException {
+        BlockingQueue<ActionInputData> actions = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<Result> results = new ArrayBlockingQueue<>(capacity);
+        AtomicReference<RuntimeException> readFailure = new AtomicReference<>();
+        AtomicReference<Exception> writeFailure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> read(source, actions, readFailure), "action-reader");
+        Thread writer = new Thread(() -> write(results, output, writeFailure), "result-writer");
+        reader.setDaemon(true);
+        writer.setDaemon(true);
+        reader.start();
+        writer.start();
+
+        try {
+            new ActionExecutor(instance, registry, (actionId, message) ->
+                    put(results, new Result(actionId, message)), parallel)
+                    .executeAll(new QueueIterator(actions));
+            put(results, END_OF_RESULTS);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            reader.interrupt();
+            writer.interrupt();
+        }
+
+        if (readFailure.get() != null) {
+            throw readFailure.get();
+        }
+        if (writeFailure.get() instanceof IOException) {
+            throw (IOException) writeFailure.get();
+        }
+        if (writeFailure.get() != null) {
+            throw (RuntimeException) writeFailure.get();
+        }
+    }
+
+    /**
+     * Reader Stage
+     * <p> A failure of the source ends the actions early and is kept, to be
+     * thrown once the decoded actions are executed.
+     *
+     * @param source The actions, in order
+     * @param queue The queue of the decoded actions
+     * @param failure The failure of the source, if any
+     */
+    private static void read(final Iterator<ActionInputData> source,
+                             final BlockingQueue<ActionInputData> queue,
+                             final AtomicReference<RuntimeException> failure) {
+        try {
+            try {
+                while (source.hasNext()) {
+                    queue.put(source.next());
+                }
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+            queue.put(END_OF_ACTIONS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writer Stage
+     * <p> After a failure of the output or of the encoding, the results are
+     * still taken from the queue, so that the execution never blocks on a
+     * full queue, but they are discarded.
+     *
+     * @param queue The queue of the results
+     * @param output The destination of the JSON array of results
+     * @param failure The failure of the output, if any
+     */
+    private static void write(final BlockingQueue<Result> queue, final java.io.Writer output,
+                              final AtomicReference<Exception> failure) {
+        try {
+            boolean first = true;
+            for (Result result = queue.take(); result != END_OF_RESULTS;
+                 result = queue.take()) {
+                if (failure.get() != null) {
+                    continue;
+                }
+                try {
+                    output.write(first ? "[" : ",");
+                    encode(result, output);
+                } catch (IOException | RuntimeException e) {
+                    failure.set(e);
+                }
+                first = false;
+            }
+            if (failure.get() == null) {
+                try {
+                    output.write(first ? "[]" : "]");
+                    output.flush();
+                } catch (IOException | RuntimeException e) {
+                    failure.set(e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Result Encoder
+     * <p> Writes the same JSON object Writer.writeFile creates, which can't
+     * be called here since a Writer opens its own file. The entries are
+     * kept in a typed HashMap, the map a JSONObject is, so they are written
+     * in the same order.
+     *
+     * @param result The result of an action
+     * @param output The destination of the JSON object
+     * @throws IOException in case of exceptions to writing
+     */
+    private static void encode(final Result result, final java.io.Writer output)
+            throws IOException {
+        Map<String, Object> object = new HashMap<>();
+        object.put(Constants.ID_STRING, result.actionId);
+        object.put(Constants.MESSAGE, result.message);
+        JSONObject.writeJSONString(object, output);
+    }
+
+    /**
+     * Queue Getter
+     * @param queue A queue
+     * @param <T> The type of the elements
+     * @return the head of the queue, once there is one
+     */
+    private static <T> T take(final BlockingQueue<T> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Queue Setter
+     * @param queue A queue
+     * @param element The element added at the tail of the queue, once there
+     *                is room for it
+     * @param <T> The type of the elements
+     */
+    private static <T> void put(final BlockingQueue<T> queue, final T element) {
+        try {
+            queue.put(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
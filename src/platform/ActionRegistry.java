@@ -0,0 +1,205 @@
+package platform;
+
+import fileio.ActionInputData;
+import platform.commands.FavoriteCommand;
+import platform.commands.RatingCommand;
+import platform.commands.ViewCommand;
+import platform.queries.Query;
+import platform.queries.actorsQuery.actorsQueriesTypes.ActorAverageQuery;
+import platform.queries.actorsQuery.actorsQueriesTypes.ActorAwardsQuery;
+import platform.queries.actorsQuery.actorsQueriesTypes.ActorFilterDescriptionQuery;
+import platform.queries.usersQuery.UserQuery;
+import platform.queries.videoQuery.videosQueriesTypes.VideoFavoriteQuery;
+import platform.queries.videoQuery.videosQueriesTypes.VideoLongestQuery;
+import platform.queries.videoQuery.videosQueriesTypes.VideoMostViewed;
+import platform.queries.videoQuery.videosQueriesTypes.VideoRatingQuery;
+import platform.recommendation.BestUnseenRecommendation;
+import platform.recommendation.FavoriteRecommendation;
+import platform.recommendation.PopularRecommendation;
+import platform.recommendation.SearchRecommendation;
+import platform.recommendation.StandardRecommendation;
+import utils.Utils;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class represents a registry of action factories
+ * <p> Each factory is registered for an action type, a kind and a criteria.
+ * The kind is the object type for queries and the type for commands and
+ * recommendations. Only queries have a criteria; a factory registered with
+ * a null criteria serves every criteria of its kind.
+ * <p> The built-in actions are registered by createDefault. New kinds of
+ * actions can be added with register, without changing the ActionLoader.
+ * Queries and recommendations may be executed in parallel, so their
+ * factories must create actions that don't change the database.
+ * <p> The queries created by a registry select their lists in parallel
+ * from the size set by setParallelThreshold.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+public final class ActionRegistry {
+    /**
+     * Factories by action type, kind and criteria
+     */
+    private final Map<String, Map<String, Map<String, ActionFactory>>> factories =
+            new HashMap<>();
+    /**
+     * Minimum size of a list selected in parallel by the created queries
+     */
+    private int parallelThreshold = Query.DEFAULT_PARALLEL_THRESHOLD;
+
+    /**
+     * Factory Registration
+     * <p> A factory registered for the same action type, kind and criteria
+     * replaces the previous one.
+     *
+     * @param actionType The action type
+     * @param kind The object type of a query, or the type of another action
+     * @param criteria The criteria of a query, or null for any criteria
+     * @param factory The factory of the action
+     */
+    public void register(final String actionType, final String kind, final String criteria,
+                         final ActionFactory factory) {
+        factories.computeIfAbsent(actionType, (key) -> new HashMap<>())
+                .computeIfAbsent(kind, (key) -> new HashMap<>())
+                .put(criteria, factory);
+    }
+
+    /**
+     * Factory Getter
+     * @param actionType The action type
+     * @param kind The object type of a query, or the type of another action
+     * @param criteria The criteria of a query, or null
+     * @return the factory registered for the criteria, or for any criteria,
+     * or null if there is none
+     */
+    public ActionFactory getFactory(final String actionType, final String kind,
+                                    final String criteria) {
+        Map<String, Map<String, ActionFactory>> kinds = factories.get(actionType);
+        if (kinds == null) {
+            return null;
+        }
+        Map<String, ActionFactory> criterias = kinds.get(kind);
+        if (criterias == null) {
+            return null;
+        }
+        ActionFactory factory = criterias.get(criteria);
+        if (factory == null) {
+            factory = criterias.get(null);
+        }
+        return factory;
+    }
+
+    /**
+     * Input Factory Getter
+     * @param actionData The input of an action
+     * @return the factory matching the input, or null if there is none
+     */
+    public ActionFactory getFactory(final ActionInputData actionData) {
+        String kind = actionData.getObjectType() != null
+                ? actionData.getObjectType() : actionData.getType();
+        return getFactory(actionData.getActionType(), kind, actionData.getCriteria());
+    }
+
+    /**
+     * Parallel Threshold Setter
+     * @param parallelThreshold The minimum size of a list selected in
+     *                          parallel by the created queries
+     */
+    public void setParallelThreshold(final int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Action Creator
+     * @param context The context of the action
+     * @return the action created by the matching factory, or null if no
+     * factory matches the input
+     */
+    public Action create(final ActionContext context) {
+        ActionFactory factory = getFactory(context.getActionData());
+        if (factory == null) {
+            return null;
+        }
+        Action action = factory.create(context);
+        if (action instanceof Query) {
+            ((Query<?>) action).setParallelThreshold(parallelThreshold);
+        }
+        return action;
+    }
+
+    /**
+     * Default Registry
+     * <p> Creates a registry holding the factories of all the commands,
+     * queries and recommendations of the platform.
+     *
+     * @return the default registry
+     */
+    public static ActionRegistry createDefault() {
+        ActionRegistry registry = new ActionRegistry();
+
+        registry.register("command", "favorite", null, (context) -> new FavoriteCommand(
+                context.getUser(), context.getVideo(), context.getInstance()));
+        registry.register("command", "view", null, (context) -> new ViewCommand(
+                context.getUser(), context.getVideo(), context.getInstance()));
+        registry.register("command", "rating", null, (context) -> new RatingCommand(
+                context.getUser(), context.getVideo(), context.getActionData().getGrade(),
+                context.getActionData().getSeasonNumber(), context.getInstance()));
+
+        registry.register("query", "actors", "average", (context) -> new ActorAverageQuery(
+                context.getActionData().getNumber(), context.getActionData().getSortType(),
+                context.getInstance().getActors(), context.getFilter()));
+        registry.register("query", "actors", "awards", (context) -> new ActorAwardsQuery(
+                context.getActionData().getNumber(), context.getActionData().getSortType(),
+                context.getInstance().getActors(), context.getFilter()));
+        registry.register("query", "actors", "filter_description", (context) ->
+                new ActorFilterDescriptionQuery(context.getActionData().getNumber(),
+                        context.getActionData().getSortType(),
+                        context.getInstance().getActors(), context.getFilter()));
+
+        for (String objectType : new String[] {"movies", "shows"}) {
+            registry.register("query", objectType, "ratings", (context) -> new VideoRatingQuery(
+                    context.getActionData().getNumber(), context.getActionData().getSortType(),
+                    context.getVideoList(), context.getFilter(), context.getInstance()));
+            registry.register("query", objectType, "longest", (context) -> new VideoLongestQuery(
+                    context.getActionData().getNumber(), context.getActionData().getSortType(),
+                    context.getVideoList(), context.getFilter(), context.getInstance()));
+            registry.register("query", objectType, "favorite", (context) ->
+                    new VideoFavoriteQuery(context.getActionData().getNumber(),
+                            context.getActionData().getSortType(), context.getVideoList(),
+                            context.getFilter(), context.getInstance()));
+        }
+        registry.register("query", "movies", "most_viewed", (context) -> new VideoMostViewed(
+                context.getActionData().getNumber(), context.getActionData().getSortType(),
+                context.getVideoList(), context.getFilter(), context.getInstance(),
+                context.getInstance().getMostViewedMovies()));
+        registry.register("query", "shows", "most_viewed", (context) -> new VideoMostViewed(
+                context.getActionData().getNumber(), context.getActionData().getSortType(),
+                context.getVideoList(), context.getFilter(), context.getInstance(),
+                context.getInstance().getMostViewedSeries()));
+
+        registry.register("query", "users", null, (context) -> new UserQuery(
+                context.getActionData().getNumber(), context.getActionData().getSortType(),
+                context.getInstance().getUsers(), context.getFilter(),
+                context.getInstance().getMostActiveUsers()));
+
+        registry.register("recommendation", "standard", null, (context) ->
+                new StandardRecommendation(context.getUser(), context.getInstance()));
+        registry.register("recommendation", "best_unseen", null, (context) ->
+                new BestUnseenRecommendation(context.getUser(), context.getInstance(),
+                        context.getUnseenVideos()));
+        registry.register("recommendation", "favorite", null, (context) ->
+                new FavoriteRecommendation(context.getUser(), context.getInstance(),
+                        context.getUnseenVideos()));
+        registry.register("recommendation", "search", null, (context) ->
+                new SearchRecommendation(context.getUser(), context.getInstance(),
+                        Utils.stringToGenre(context.getActionData().getGenre()),
+                        context.getUnseenIds()));
+        registry.register("recommendation", "popular", null, (context) ->
+                new PopularRecommendation(context.getUser(), context.getInstance(),
+                        context.getUnseenIds()));
+
+        return registry;
+    }
+}
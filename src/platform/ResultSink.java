@@ -0,0 +1,19 @@
+package platform;
+
+/**
+ * Interface describes the destination of the results of the actions
+ * <p> The results are given in the order of the actions, each one as soon
+ * as it is known.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+@FunctionalInterface
+public interface ResultSink {
+    /**
+     * Result Writer
+     * @param actionId The id of the action
+     * @param message The output message of the action
+     */
+    void write(int actionId, String message);
+}
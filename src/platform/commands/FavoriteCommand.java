@@ -1,5 +1,6 @@
 package platform.commands;
 
+import database.Database;
 import entertainment.Video;
 import platform.Action;
 import user.User;
@@ -21,6 +22,10 @@ public class FavoriteCommand extends Action {
      * The Video
      */
     private Video video;
+    /**
+     * The Database instance
+     */
+    private Database instance;
 
     /**
      * Constructor
@@ -30,10 +35,12 @@ public class FavoriteCommand extends Action {
      *
      * @param user The user applying the command
      * @param video The video it wants to add to Favorite List
+     * @param instance The database
      */
-    public FavoriteCommand(final User user, final Video video) {
+    public FavoriteCommand(final User user, final Video video, final Database instance) {
         this.user = user;
         this.video = video;
+        this.instance = instance;
     }
 
     /**
@@ -49,7 +56,7 @@ public class FavoriteCommand extends Action {
      *
      * <p> When a video is added in the Favorites list of a
      * user, the video's counter of occurrences in the favorites list
-     * increments.
+     * increments, both in the video and in the metrics store.
      *
      */
     @Override
@@ -63,6 +70,7 @@ public class FavoriteCommand extends Action {
         } else {
             user.getFavoriteVideos().add(video);
             video.setCountFavorites(video.getCountFavorites() + 1);
+            instance.getMetrics().addFavorite(video.getId());
             message.append("success -> ").append(video.getTitle())
                     .append(" was added as favourite");
         }
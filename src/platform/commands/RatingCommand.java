@@ -1,5 +1,7 @@
 package platform.commands;
 
+import actor.Actor;
+import database.Database;
 import entertainment.Video;
 import platform.Action;
 import user.User;
@@ -30,6 +32,10 @@ public class RatingCommand extends Action {
      * The Video
      */
     private Video video;
+    /**
+     * The Database instance
+     */
+    private Database instance;
 
     /**
      * Constructor
@@ -40,13 +46,15 @@ public class RatingCommand extends Action {
      * @param video - The reviewed Video
      * @param grade - The rating grade
      * @param season - The season, Optional used for series
+     * @param instance - The database
      */
     public RatingCommand(final User user, final Video video,
-                         final Double grade, final int season) {
+                         final Double grade, final int season, final Database instance) {
         this.user = user;
         this.video = video;
         this.grade = grade;
         this.season = season;
+        this.instance = instance;
     }
 
     /**
@@ -65,7 +73,9 @@ public class RatingCommand extends Action {
      * <p> Each user has an activity counter, used for providing
      * information on the most active users from our Database.
      * <p> Therefore, when a video is rated, the given grade is added to the
-     * video's list of ratings and the activity score of the user increments.
+     * video's list of ratings, the new rating of the video is stored in the
+     * metrics store, the actors that played in the video update their average
+     * rating and the activity score of the user increments.
      */
     @Override
     public void execute() {
@@ -77,7 +87,9 @@ public class RatingCommand extends Action {
                     .append(" has been already rated");
         } else {
             video.setReviewer(user, grade, season);
-            user.setActivityCounter(user.getActivityCounter() + 1);
+            instance.getMetrics().addRating(video.getId(), video.getRating());
+            instance.getActorsByVideo(video).forEach(Actor::updateAverageRating);
+            instance.addActivity(user);
             message.append("success -> ").append(video.getTitle())
                     .append(" was rated with ").append(grade)
                     .append(" by ").append(user.getUsername());
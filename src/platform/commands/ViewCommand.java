@@ -1,5 +1,6 @@
 package platform.commands;
 
+import database.Database;
 import entertainment.Video;
 import platform.Action;
 import user.User;
@@ -21,6 +22,10 @@ public class ViewCommand extends Action {
      * The Video
      */
     private Video video;
+    /**
+     * The Database instance
+     */
+    private Database instance;
 
     /**
      * Constructor
@@ -29,10 +34,12 @@ public class ViewCommand extends Action {
      *
      * @param user The user applying the command
      * @param video The video
+     * @param instance The database
      */
-    public ViewCommand(final User user, final Video video) {
+    public ViewCommand(final User user, final Video video, final Database instance) {
         this.user = user;
         this.video = video;
+        this.instance = instance;
     }
 
     /**
@@ -40,7 +47,7 @@ public class ViewCommand extends Action {
      * <p> In this scenario there are 2 cases:
      *     1. The user has seen the video, in which case we update
      *     the value from the history map of the user and increment
-     *     the total number of views of the video
+     *     the total number of views of the video, also in the database
      *     2. The user hasn't seen the video, in which case we add a
      *     new entry in the user's map of history with the given
      *     video and a value of 1 - The user has seen the video
@@ -53,8 +60,9 @@ public class ViewCommand extends Action {
             Integer countViews = user.getHistory().get(video);
             user.getHistory().put(video, countViews + 1);
             video.setCountViews(video.getCountViews() + 1);
+            instance.addViews(video, 1);
         } else {
-            user.getHistory().put(video, 1);
+            user.addWatchedVideo(video);
         }
 
         message.append("success -> ").append(video.getTitle())
@@ -2,8 +2,17 @@ package platform.queries;
 
 import platform.Action;
 import filter.Filter;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Class contains information about a generic Query
@@ -18,6 +27,14 @@ import java.util.List;
  * @since Nov 2021
  */
 public abstract class Query<E> extends Action {
+    /**
+     * Default minimum size of a list selected in parallel
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 17;
+    /**
+     * Maximum size of a range selected by a single parallel task
+     */
+    private static final int PARALLEL_LEAF_SIZE = 1 << 13;
     /**
      * Filter
      */
@@ -34,6 +51,10 @@ public abstract class Query<E> extends Action {
      * Initial List of Objects - Could be Actors, Videos or Users
      */
     protected List<E> list;
+    /**
+     * Minimum size of a list selected in parallel
+     */
+    private int parallelThreshold;
 
     /**
      * Constructor
@@ -47,10 +68,28 @@ public abstract class Query<E> extends Action {
      */
     public Query(final int number, final String sortType,
                  final List<E> list, final Filter filter) {
+        this(number, sortType, list, filter, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Constructor
+     * <p> Creates a query like the constructor above, selecting lists of at
+     * least the given size in parallel. Smaller lists are selected
+     * sequentially, since splitting them costs more than it saves.
+     *
+     * @param number The interrogated number
+     * @param sortType Sort Type, could be ascending or descending
+     * @param list Initial List of Objects
+     * @param filter Expected filter
+     * @param parallelThreshold Minimum size of a list selected in parallel
+     */
+    protected Query(final int number, final String sortType, final List<E> list,
+                    final Filter filter, final int parallelThreshold) {
         this.number = number;
         this.sortType = sortType;
         this.list = list;
         this.filter = filter;
+        this.parallelThreshold = parallelThreshold;
     }
 
     /**
@@ -72,6 +111,35 @@ public abstract class Query<E> extends Action {
      */
     public abstract List<E> getValidatedList(List<E> x);
 
+    /**
+     * Filter Test
+     * <p> Returns the test the first step applies to each object, so that
+     * the steps can be fused into a single pass over the initial list.
+     * <p> Subclasses that override getFilteredList must override this method
+     * too, or return null if their filter can't be applied object by object
+     * or is cheaper to apply to the whole list at once.
+     *
+     * @return the filter test, or null if the filtered list has to be built
+     */
+    protected Predicate<E> getFilterTest() {
+        return null;
+    }
+
+    /**
+     * Validation Test
+     * <p> Returns the test the second step applies to each object, like the
+     * filter test above.
+     * <p> Subclasses that override getValidatedList must override this method
+     * too, or return null if their validation can't be applied object by
+     * object.
+     *
+     * @return the validation test, or null if the validated list has to be
+     * built
+     */
+    protected Predicate<E> getValidationTest() {
+        return null;
+    }
+
     /**
      * Third Step
      * <p> Sort the given list by default in ascendant order after specific fields
@@ -82,6 +150,36 @@ public abstract class Query<E> extends Action {
      */
     public abstract List<E> getSortedList(List<E> x);
 
+    /**
+     * Sort Order
+     * <p> Returns the comparator used by the third step for sorting objects in
+     * ascendant order, so that the final list can be selected without sorting
+     * the whole list.
+     * <p> Subclasses that override getSortedList with a different order must
+     * override this method too, or return null if their order can't be
+     * expressed by a comparator.
+     *
+     * @return the ascendant order of the objects, or null if the final list
+     * has to be obtained by sorting the whole list
+     */
+    protected Comparator<E> getComparator() {
+        return null;
+    }
+
+    /**
+     * Sort Key
+     * <p> Returns the numeric key that the sort order compares first, such as
+     * the rating of a video or the number of awards of an actor.
+     * <p> The keys are computed once for each object before the selection,
+     * and the comparator is only used for breaking ties between equal keys.
+     *
+     * @return the first key of the sort order, or null if the sort order has
+     * no numeric key
+     */
+    protected ToDoubleFunction<E> getSortKey() {
+        return null;
+    }
+
     /**
      * Fourth Step
      * <p> Our sorting mechanism, sorts objects by default in ascendant order.
@@ -114,13 +212,32 @@ public abstract class Query<E> extends Action {
      * Final List Retriever
      * <p> This method follows the above-mentioned steps and
      * retrieves the final list
+     * <p> When the query provides its sort order, the sort, order and number
+     * steps are replaced by a top-K selection. When it also provides its
+     * filter and validation tests, all steps are fused into a single pass
+     * over the initial list, without building the intermediate lists. With
+     * only the validation test, the pass is over the filtered list.
      *
      * @param x Initial list
      * @return Final list
      */
     public List<E> getFinalList(final List<E> x) {
+        Comparator<E> comparator = getComparator();
+        Predicate<E> filterTest = getFilterTest();
+        Predicate<E> validationTest = getValidationTest();
+        if (comparator != null && filterTest != null && validationTest != null) {
+            return getTopList(x, filterTest.and(validationTest), comparator);
+        }
+        if (comparator != null && validationTest != null) {
+            return getTopList(getFilteredList(x), validationTest, comparator);
+        }
+
         List<E> filteredList = getFilteredList(x);
         List<E> validatedList = getValidatedList(filteredList);
+        if (comparator != null) {
+            return getTopList(validatedList, (element) -> true, comparator);
+        }
+
         List<E> sortedList = getSortedList(validatedList);
         getCorrectOrder(sortedList);
         List<E> finalList = getCorrectNumber(sortedList);
@@ -128,6 +245,237 @@ public abstract class Query<E> extends Action {
         return finalList;
     }
 
+    /**
+     * Class contains an object selected by the top-K selection
+     * <p> Candidates are recycled: the one evicted from the heap is reused
+     * for the next object, so the selection allocates only number + 1 of
+     * them.
+     *
+     * @param <E> The type of the object
+     */
+    private static final class Candidate<E> {
+        /**
+         * Position of the object in the initial list
+         */
+        private int position;
+        /**
+         * Sort key of the object
+         */
+        private double key;
+        /**
+         * The object
+         */
+        private E element;
+
+        private void set(final int newPosition, final double newKey, final E newElement) {
+            this.position = newPosition;
+            this.key = newKey;
+            this.element = newElement;
+        }
+    }
+
+    /**
+     * Top-K Selection
+     * <p> Selects the first number objects that sorting, ordering and cutting
+     * the list would give, using a bounded heap of candidates.
+     * <p> Sorting is stable, so equal objects keep their positions in the list,
+     * and a descending order reverses the whole sorted list. Therefore, equal
+     * objects are ranked by position, ascending or descending like the
+     * comparator. Filtering keeps the relative positions, so the positions
+     * in the initial list rank them the same way.
+     * <p> Lists having at least parallelThreshold objects are split across
+     * the common fork-join pool, see SelectionTask.
+     *
+     * @param x Initial list
+     * @param test Filter and validation test of the objects
+     * @param comparator Ascendant order of the objects
+     * @return Final list
+     */
+    private List<E> getTopList(final List<E> x, final Predicate<E> test,
+                               final Comparator<E> comparator) {
+        List<E> finalList = new ArrayList<>();
+        if (number <= 0) {
+            return finalList;
+        }
+
+        Comparator<Candidate<E>> rank = getRank(comparator);
+        ToDoubleFunction<E> sortKey = getSortKey();
+        List<Candidate<E>> selected;
+        if (x.size() >= parallelThreshold && x instanceof RandomAccess) {
+            selected = ForkJoinPool.commonPool()
+                    .invoke(new SelectionTask(x, 0, x.size(), test, sortKey, rank));
+        } else {
+            selected = selectRange(x, 0, x.size(), test, sortKey, rank);
+        }
+
+        selected.forEach((candidate) -> finalList.add(candidate.element));
+        return finalList;
+    }
+
+    /**
+     * Candidate Order
+     * <p> Ranks candidates by sort key, then by comparator and then by
+     * position, ascending or descending like the sort type. It is a total
+     * order, so any way of selecting the best candidates gives the same
+     * result.
+     *
+     * @param comparator Ascendant order of the objects
+     * @return the order of the candidates, best first
+     */
+    private Comparator<Candidate<E>> getRank(final Comparator<E> comparator) {
+        int direction = sortType.equals("desc") ? -1 : 1;
+        return (Candidate<E> c1, Candidate<E> c2) -> {
+            int result = Double.compare(c1.key, c2.key);
+            if (result == 0) {
+                result = comparator.compare(c1.element, c2.element);
+            }
+            if (result == 0) {
+                result = Integer.compare(c1.position, c2.position);
+            }
+            return direction * result;
+        };
+    }
+
+    /**
+     * Range Selection
+     * <p> Selects the best number candidates from a range of the list.
+     * <p> The heap keeps the number best candidates seen so far, with the
+     * worst of them on top, so the selection takes O(n log number). The sort
+     * key of each accepted object is computed once, when it is offered.
+     *
+     * @param x Initial list
+     * @param from First position of the range
+     * @param to Position after the range
+     * @param test Filter and validation test of the objects
+     * @param sortKey First key of the sort order, or null
+     * @param rank Order of the candidates
+     * @return the selected candidates, best first
+     */
+    private List<Candidate<E>> selectRange(final List<E> x, final int from, final int to,
+                                           final Predicate<E> test,
+                                           final ToDoubleFunction<E> sortKey,
+                                           final Comparator<Candidate<E>> rank) {
+        PriorityQueue<Candidate<E>> heap = new PriorityQueue<>(number + 1, rank.reversed());
+        Candidate<E> spare = new Candidate<>();
+        int position = from;
+        for (E element : x.subList(from, to)) {
+            if (test.test(element)) {
+                double key = sortKey == null ? 0 : sortKey.applyAsDouble(element);
+                spare.set(position, key, element);
+                if (heap.size() < number) {
+                    heap.add(spare);
+                    spare = new Candidate<>();
+                } else if (rank.compare(spare, heap.peek()) < 0) {
+                    Candidate<E> worst = heap.poll();
+                    heap.add(spare);
+                    spare = worst;
+                }
+            }
+            position++;
+        }
+
+        List<Candidate<E>> selected = new ArrayList<>(heap);
+        selected.sort(rank);
+        return selected;
+    }
+
+    /**
+     * Class represents a parallel top-K selection
+     * <p> The range is split in halves until it has at most PARALLEL_LEAF_SIZE
+     * objects. Each leaf selects its best candidates like the sequential
+     * path, and the two halves of a range are merged keeping the best number
+     * candidates. The order of the candidates is total, so the result is
+     * identical to the sequential one.
+     * <p> The tests, keys and comparators only read the database, which
+     * doesn't change while a query runs.
+     */
+    private final class SelectionTask extends RecursiveTask<List<Candidate<E>>> {
+        /**
+         * Serialization version, since a fork-join task is serializable
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * Initial list
+         */
+        private final List<E> x;
+        /**
+         * First position of the range
+         */
+        private final int from;
+        /**
+         * Position after the range
+         */
+        private final int to;
+        /**
+         * Filter and validation test of the objects
+         */
+        private final Predicate<E> test;
+        /**
+         * First key of the sort order, or null
+         */
+        private final ToDoubleFunction<E> sortKey;
+        /**
+         * Order of the candidates
+         */
+        private final Comparator<Candidate<E>> rank;
+
+        private SelectionTask(final List<E> x, final int from, final int to,
+                              final Predicate<E> test, final ToDoubleFunction<E> sortKey,
+                              final Comparator<Candidate<E>> rank) {
+            this.x = x;
+            this.from = from;
+            this.to = to;
+            this.test = test;
+            this.sortKey = sortKey;
+            this.rank = rank;
+        }
+
+        @Override
+        protected List<Candidate<E>> compute() {
+            if (to - from <= PARALLEL_LEAF_SIZE) {
+                return selectRange(x, from, to, test, sortKey, rank);
+            }
+
+            int middle = (from + to) >>> 1;
+            SelectionTask left = new SelectionTask(x, from, middle, test, sortKey, rank);
+            SelectionTask right = new SelectionTask(x, middle, to, test, sortKey, rank);
+            left.fork();
+            List<Candidate<E>> rightSelected = right.compute();
+            List<Candidate<E>> leftSelected = left.join();
+
+            List<Candidate<E>> selected = new ArrayList<>();
+            int i = 0;
+            int j = 0;
+            while (selected.size() < number
+                    && (i < leftSelected.size() || j < rightSelected.size())) {
+                if (j == rightSelected.size() || (i < leftSelected.size()
+                        && rank.compare(leftSelected.get(i), rightSelected.get(j)) < 0)) {
+                    selected.add(leftSelected.get(i++));
+                } else {
+                    selected.add(rightSelected.get(j++));
+                }
+            }
+            return selected;
+        }
+    }
+
+    /**
+     * Names Appender
+     * <p> Appends the names of the objects to the output message, separated
+     * by commas, without changing the list.
+     *
+     * @param x Final list
+     * @param name The name of an object
+     */
+    protected void appendNames(final List<E> x, final Function<E, String> name) {
+        for (int i = 0; i < x.size(); i++) {
+            if (i > 0) {
+                message.append(", ");
+            }
+            message.append(name.apply(x.get(i)));
+        }
+    }
+
     /**
      * Filter Setter
      * @param filter The filter
@@ -135,4 +483,21 @@ public abstract class Query<E> extends Action {
     public void setFilter(final Filter filter) {
         this.filter = filter;
     }
+
+    /**
+     * Parallel Threshold Getter
+     * @return the minimum size of a list selected in parallel
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Parallel Threshold Setter
+     * @param parallelThreshold The minimum size of a list selected in
+     *                          parallel
+     */
+    public void setParallelThreshold(final int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
 }
@@ -0,0 +1,250 @@
+package platform.queries;
+
+import common.Constants;
+import database.Database;
+import database.VideoMetrics;
+import fileio.ActionInputData;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Class represents a cache of query results
+ * <p> Identical queries (same object type, criteria, sort type, number and
+ * filters) give the same result as long as the metrics they read have not
+ * changed. Each result is stored together with the version of the metrics
+ * it was computed from, and it is only reused for the same version.
+ * <p> The cache holds a bounded number of results. When it is full, the
+ * least frequently used result is evicted, and between equally used results
+ * the one that reached that number of uses first. The results are grouped
+ * in buckets by their number of uses, so finding the victim doesn't visit
+ * the other results.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+public class QueryCache {
+    /**
+     * Default maximum number of stored results
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Class contains a stored result
+     */
+    private static final class Entry {
+        /**
+         * The output message of the query
+         */
+        private final String message;
+        /**
+         * Version of the metrics the message was computed from
+         */
+        private final long version;
+        /**
+         * Number of uses of the result
+         */
+        private int frequency = 1;
+
+        Entry(final String message, final long version) {
+            this.message = message;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Database instance
+     */
+    protected final Database instance;
+    /**
+     * Stored results by their query key
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+    /**
+     * Keys of the stored results by their number of uses, each bucket in
+     * the order the results reached that number
+     */
+    private final TreeMap<Integer, LinkedHashSet<String>> buckets = new TreeMap<>();
+    /**
+     * Maximum number of stored results
+     */
+    private final int capacity;
+    /**
+     * Number of lookups answered from the cache
+     */
+    private int hits;
+    /**
+     * Number of lookups that had to compute the query
+     */
+    private int misses;
+
+    /**
+     * Constructor
+     * @param instance Database instance
+     */
+    public QueryCache(final Database instance) {
+        this(instance, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * @param instance Database instance
+     * @param capacity Maximum number of stored results
+     */
+    public QueryCache(final Database instance, final int capacity) {
+        this.instance = instance;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Query Key
+     * <p> Two queries having the same key always select the same objects
+     * from the same metrics.
+     *
+     * @param actionData The input of the query
+     * @return the key of the query, or null if its result can't be cached
+     */
+    public String getKey(final ActionInputData actionData) {
+        return actionData.getObjectType() + "|" + actionData.getCriteria() + "|"
+                + actionData.getSortType() + "|" + actionData.getNumber() + "|"
+                + actionData.getFilters();
+    }
+
+    /**
+     * Query Version
+     * <p> Returns the version of the only dimension of the metrics the query
+     * reads. Queries on durations, awards and descriptions read no changing
+     * metrics, so their version is always 0.
+     *
+     * @param actionData The input of the query
+     * @return the current version of the metrics read by the query
+     */
+    public long getVersion(final ActionInputData actionData) {
+        VideoMetrics metrics = instance.getMetrics();
+        if (Constants.USERS.equals(actionData.getObjectType())) {
+            return metrics.getVersion(VideoMetrics.Dimension.RATINGS);
+        }
+        return switch (actionData.getCriteria()) {
+            case "ratings", "average" -> metrics.getVersion(VideoMetrics.Dimension.RATINGS);
+            case "favorite" -> metrics.getVersion(VideoMetrics.Dimension.FAVORITES);
+            case "most_viewed" -> metrics.getVersion(VideoMetrics.Dimension.VIEWS);
+            default -> 0;
+        };
+    }
+
+    /**
+     * Result Getter
+     * <p> Outdated results are removed, since their version will never be
+     * current again.
+     *
+     * @param key The key of the query
+     * @param version The current version of the metrics read by the query
+     * @return the stored message, or null if there is no current result
+     */
+    public String get(final String key, final long version) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.version != version) {
+            if (entry != null) {
+                remove(key);
+            }
+            misses++;
+            return null;
+        }
+        unlink(key, entry);
+        entry.frequency++;
+        link(key, entry);
+        hits++;
+        return entry.message;
+    }
+
+    /**
+     * Result Setter
+     * <p> Evicts the least frequently used result if the cache is full.
+     *
+     * @param key The key of the query
+     * @param version The version of the metrics the message was computed from
+     * @param message The output message of the query
+     */
+    public void put(final String key, final long version, final String message) {
+        if (capacity <= 0) {
+            return;
+        }
+        remove(key);
+        if (entries.size() >= capacity) {
+            evict();
+        }
+        Entry entry = new Entry(message, version);
+        entries.put(key, entry);
+        link(key, entry);
+    }
+
+    /**
+     * Eviction
+     * <p> Removes the first result of the bucket of the fewest uses.
+     */
+    private void evict() {
+        remove(buckets.firstEntry().getValue().iterator().next());
+    }
+
+    /**
+     * Result Remover
+     * @param key The key of a query, stored or not
+     */
+    private void remove(final String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unlink(key, entry);
+        }
+    }
+
+    /**
+     * Bucket Adder
+     * @param key The key of a stored result
+     * @param entry The stored result, added at the end of the bucket of its
+     *              number of uses
+     */
+    private void link(final String key, final Entry entry) {
+        buckets.computeIfAbsent(entry.frequency, (frequency) -> new LinkedHashSet<>()).add(key);
+    }
+
+    /**
+     * Bucket Remover
+     * <p> Empty buckets are removed, so the first bucket is never empty.
+     *
+     * @param key The key of a stored result
+     * @param entry The stored result
+     */
+    private void unlink(final String key, final Entry entry) {
+        Set<String> bucket = buckets.get(entry.frequency);
+        bucket.remove(key);
+        if (bucket.isEmpty()) {
+            buckets.remove(entry.frequency);
+        }
+    }
+
+    /**
+     * Hits Getter
+     * @return the number of lookups answered from the cache
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Misses Getter
+     * @return the number of lookups that had to compute the query
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Size Getter
+     * @return the number of stored results
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -5,6 +5,7 @@ import platform.queries.Query;
 import filter.Filter;
 
 import java.util.List;
+import java.util.function.Predicate;
 /**
  * Class contains information on an Actor Query
  *
@@ -28,6 +29,15 @@ public abstract class ActorQuery extends Query<Actor> {
         return x;
     }
 
+    /**
+     * Filter Test
+     * @return the test selecting all actors
+     */
+    @Override
+    protected Predicate<Actor> getFilterTest() {
+        return (actor) -> true;
+    }
+
     /**
      * <p> This method generates the output message after retrieving
      * the expected final list of actors.
@@ -38,11 +48,7 @@ public abstract class ActorQuery extends Query<Actor> {
 
         message.append("Query result: ");
         message.append("[");
-        if (finalList.size() > 0) {
-            message.append(finalList.get(0).getName());
-            finalList.remove(0);
-            finalList.forEach((actor) -> message.append(", ").append(actor.getName()));
-        }
+        appendNames(finalList, Actor::getName);
         message.append("]");
     }
 }
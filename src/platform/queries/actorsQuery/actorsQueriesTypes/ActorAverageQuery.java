@@ -6,6 +6,8 @@ import filter.Filter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 /**
  * Class contains information on Actor Average Query
@@ -32,12 +34,21 @@ public class ActorAverageQuery extends ActorQuery {
         List<Actor> validatedList = new ArrayList<>();
 
         x.stream()
-                .filter((actor) -> actor.getAverageRating() != 0)
+                .filter(getValidationTest())
                 .forEach(validatedList::add);
 
         return validatedList;
     }
 
+    /**
+     * Validation Test
+     * @return the test selecting the actors having an average rating
+     */
+    @Override
+    protected Predicate<Actor> getValidationTest() {
+        return (actor) -> actor.getAverageRating() != 0;
+    }
+
     /**
      * Average Sort
      * <p> This method sorts actors by their average rating grade and then by name in
@@ -49,16 +60,35 @@ public class ActorAverageQuery extends ActorQuery {
     public List<Actor> getSortedList(final List<Actor> x) {
         List<Actor> sorted;
 
+        sorted = (List<Actor>) x.stream()
+                .sorted(getComparator())
+                .collect(Collectors.toList());
+
+        return sorted;
+    }
+
+    /**
+     * Sort Order
+     * <p> The order used for sorting: by average rating and then by name, in ascendant order.
+     * @return the ascendant order of the actors
+     */
+    @Override
+    protected Comparator<Actor> getComparator() {
         Comparator<Actor> averageComparator = (Actor a1, Actor a2) ->
                         Double.compare(a1.getAverageRating(), a2.getAverageRating());
 
         Comparator<Actor> nameComparator = (Actor a1, Actor a2) ->
                                 a1.getName().compareTo(a2.getName());
 
-        sorted = (List<Actor>) x.stream()
-                .sorted(averageComparator.thenComparing(nameComparator))
-                .collect(Collectors.toList());
+        return averageComparator.thenComparing(nameComparator);
+    }
 
-        return sorted;
+    /**
+     * Sort Key
+     * @return the average rating of the actor
+     */
+    @Override
+    protected ToDoubleFunction<Actor> getSortKey() {
+        return Actor::getAverageRating;
     }
 }
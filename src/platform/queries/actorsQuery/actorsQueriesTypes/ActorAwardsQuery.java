@@ -6,6 +6,8 @@ import filter.Filter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 /**
  * Class contains information on Actor Awards Query
@@ -32,12 +34,21 @@ public class ActorAwardsQuery extends ActorQuery {
         List<Actor> validatedList = new ArrayList<>();
 
         x.stream()
-                .filter((actor) -> actor.hasAwardsFromList(filter.getAwards()))
+                .filter(getValidationTest())
                 .forEach(validatedList::add);
 
         return validatedList;
     }
 
+    /**
+     * Validation Test
+     * @return the test selecting the actors having all the filtered awards
+     */
+    @Override
+    protected Predicate<Actor> getValidationTest() {
+        return (actor) -> filter.matchesAwards(actor.getAwardsMask());
+    }
+
     /**
      * Awards Sort
      * <p> This method sorts a given list of actors by the number of total awards and
@@ -49,16 +60,35 @@ public class ActorAwardsQuery extends ActorQuery {
     public List<Actor> getSortedList(final List<Actor> x) {
         List<Actor> sorted;
 
+        sorted = (List<Actor>) x.stream()
+                .sorted(getComparator())
+                .collect(Collectors.toList());
+
+        return sorted;
+    }
+
+    /**
+     * Sort Order
+     * <p> The order used for sorting: by number of awards and then by name, in ascendant order.
+     * @return the ascendant order of the actors
+     */
+    @Override
+    protected Comparator<Actor> getComparator() {
         Comparator<Actor> awardsComparator = (Actor a1, Actor a2) ->
                 Integer.compare(a1.countAwards(), a2.countAwards());
 
         Comparator<Actor> nameComparator = (Actor a1, Actor a2) ->
                 a1.getName().compareTo(a2.getName());
 
-        sorted = (List<Actor>) x.stream()
-                .sorted(awardsComparator.thenComparing(nameComparator))
-                .collect(Collectors.toList());
+        return awardsComparator.thenComparing(nameComparator);
+    }
 
-        return sorted;
+    /**
+     * Sort Key
+     * @return the number of awards of the actor
+     */
+    @Override
+    protected ToDoubleFunction<Actor> getSortKey() {
+        return Actor::countAwards;
     }
 }
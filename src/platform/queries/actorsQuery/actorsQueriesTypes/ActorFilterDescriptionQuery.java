@@ -6,6 +6,7 @@ import filter.Filter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 /**
  * Class contains information on Actor filter Description Query
@@ -33,12 +34,21 @@ public class ActorFilterDescriptionQuery extends ActorQuery {
         List<Actor> validatedActors = new ArrayList<>();
 
         x.stream()
-                .filter((actor) -> actor.hasKeyWords(filter.getWords()))
+                .filter(getValidationTest())
                 .forEach(validatedActors::add);
 
         return validatedActors;
     }
 
+    /**
+     * Validation Test
+     * @return the test selecting the actors having all the filtered words in their description
+     */
+    @Override
+    protected Predicate<Actor> getValidationTest() {
+        return (actor) -> actor.hasKeyWords(filter.getWords());
+    }
+
     /**
      * Filter Description Sort
      * <p> This method sorts actors by name in ascendant order
@@ -49,13 +59,23 @@ public class ActorFilterDescriptionQuery extends ActorQuery {
     public List<Actor> getSortedList(final List<Actor> x) {
         List<Actor> sorted;
 
-        Comparator<Actor> nameComparator = (Actor a1, Actor a2) ->
-                a1.getName().compareTo(a2.getName());
-
         sorted = (List<Actor>) x.stream()
-                .sorted(nameComparator)
+                .sorted(getComparator())
                 .collect(Collectors.toList());
 
         return sorted;
     }
+
+    /**
+     * Sort Order
+     * <p> The order used for sorting: by name, in ascendant order.
+     * @return the ascendant order of the actors
+     */
+    @Override
+    protected Comparator<Actor> getComparator() {
+        Comparator<Actor> nameComparator = (Actor a1, Actor a2) ->
+                a1.getName().compareTo(a2.getName());
+
+        return nameComparator;
+    }
 }
@@ -5,7 +5,11 @@ import platform.queries.Query;
 import user.User;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NavigableSet;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 /**
  * Class contains information on a User Query
@@ -14,11 +18,60 @@ import java.util.stream.Collectors;
  * @since Nov 2021
  */
 public class UserQuery extends Query<User> {
+    /**
+     * Ranking of the active users, or null if the query has to sort
+     * the given list
+     */
+    private NavigableSet<User> mostActive;
+
     public UserQuery(final int number, final String sortType, final List<User> list,
                      final Filter filter) {
         super(number, sortType, list, filter);
     }
 
+    /**
+     * Constructor
+     * <p> Creates a user query that reads its result from a ranking kept by
+     * the database, instead of sorting the given list.
+     *
+     * @param number Expected Number of elements
+     * @param sortType Sort Type (could be ascending or descending)
+     * @param list List of initial users
+     * @param filter Expected Filter
+     * @param mostActive Ranking of the active users from the list, in ascending
+     *                   order of activity score and usernames
+     */
+    public UserQuery(final int number, final String sortType, final List<User> list,
+                     final Filter filter, final NavigableSet<User> mostActive) {
+        super(number, sortType, list, filter);
+        this.mostActive = mostActive;
+    }
+
+    /**
+     * User Final List
+     * <p> When a ranking is available, it already holds the validated users
+     * in sorted order, so we only take the required number of them from the
+     * required end.
+     *
+     * @param x Initial list
+     * @return Final list
+     */
+    @Override
+    public List<User> getFinalList(final List<User> x) {
+        if (mostActive == null) {
+            return super.getFinalList(x);
+        }
+
+        List<User> finalList = new ArrayList<>();
+        Iterator<User> iterator = sortType.equals("desc")
+                ? mostActive.descendingIterator() : mostActive.iterator();
+
+        while (iterator.hasNext() && finalList.size() < number) {
+            finalList.add(iterator.next());
+        }
+        return finalList;
+    }
+
     /**
      * No need for filter in the user query in this scenario.
      * @param x Initial list
@@ -29,6 +82,15 @@ public class UserQuery extends Query<User> {
         return x;
     }
 
+    /**
+     * Filter Test
+     * @return the test selecting all users
+     */
+    @Override
+    protected Predicate<User> getFilterTest() {
+        return (user) -> true;
+    }
+
     /**
      * User Validation
      * <p> This method selects all users that have given at least one rating,
@@ -42,12 +104,21 @@ public class UserQuery extends Query<User> {
         List<User> validatedList = new ArrayList<>();
 
         x.stream()
-                .filter((user) -> user.getActivityCounter() != 0)
+                .filter(getValidationTest())
                 .forEach(validatedList::add);
 
         return validatedList;
     }
 
+    /**
+     * Validation Test
+     * @return the test selecting the users having given at least one rating
+     */
+    @Override
+    protected Predicate<User> getValidationTest() {
+        return (user) -> user.getActivityCounter() != 0;
+    }
+
     /**
      * User sort
      * <p> This method sorts all given users by their activity score and
@@ -60,17 +131,36 @@ public class UserQuery extends Query<User> {
     public List<User> getSortedList(final List<User> x) {
         List<User> sorted;
 
+        sorted = (List<User>) x.stream()
+                .sorted(getComparator())
+                .collect(Collectors.toList());
+
+        return sorted;
+    }
+
+    /**
+     * Sort Order
+     * <p> The order used for sorting: by activity score and then by name, in ascendant order.
+     * @return the ascendant order of the users
+     */
+    @Override
+    protected Comparator<User> getComparator() {
         Comparator<User> activityComparator = (User u1, User u2) ->
                 Integer.compare(u1.getActivityCounter(), u2.getActivityCounter());
 
         Comparator<User> nameComparator = (User u1, User u2) -> u1.getUsername()
                 .compareTo(u2.getUsername());
 
-        sorted = (List<User>) x.stream()
-                .sorted(activityComparator.thenComparing(nameComparator))
-                .collect(Collectors.toList());
+        return activityComparator.thenComparing(nameComparator);
+    }
 
-        return sorted;
+    /**
+     * Sort Key
+     * @return the number of ratings given by the user
+     */
+    @Override
+    protected ToDoubleFunction<User> getSortKey() {
+        return User::getActivityCounter;
     }
 
     /**
@@ -83,11 +173,7 @@ public class UserQuery extends Query<User> {
 
         message.append("Query result: ");
         message.append("[");
-        if (finalList.size() >= 1) {
-            message.append(finalList.get(0).getUsername());
-            finalList.remove(0);
-            finalList.forEach((user) -> message.append(", ").append(user.getUsername()));
-        }
+        appendNames(finalList, User::getUsername);
         message.append("]");
     }
 }
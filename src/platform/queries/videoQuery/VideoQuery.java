@@ -1,10 +1,15 @@
 package platform.queries.videoQuery;
 
+import database.Database;
+import database.VideoMetrics;
 import entertainment.Video;
 import platform.queries.Query;
 import filter.Filter;
+import filter.YearRange;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Class contains information on a Video Query
@@ -13,6 +18,14 @@ import java.util.List;
  * @since Nov 2021
  */
 public abstract class VideoQuery extends Query<Video> {
+    /**
+     * The Database instance
+     */
+    protected Database instance;
+    /**
+     * Metrics of all videos, indexed by video id
+     */
+    protected VideoMetrics metrics;
 
     /**
      * Constructor
@@ -21,10 +34,13 @@ public abstract class VideoQuery extends Query<Video> {
      * @param sortType Sort Type (could be ascending or descending)
      * @param videos List of initial videos
      * @param filter Expected Filter
+     * @param instance The database
      */
     public VideoQuery(final int number, final String sortType, final List<Video> videos,
-                      final Filter filter) {
+                      final Filter filter, final Database instance) {
         super(number, sortType, videos, filter);
+        this.instance = instance;
+        this.metrics = instance.getMetrics();
     }
 
     /**
@@ -32,40 +48,118 @@ public abstract class VideoQuery extends Query<Video> {
      * <p> The videos are filtered from a given list of genres and of years.
      * This method returns all videos having at least one year and one
      * genre from the required filters
+     * <p> The initial list is the list of movies or of series, whose ids are
+     * consecutive and follow the order of the list. The ids of the filtered
+     * videos are then walked in order, within the ids of the list, and
+     * mapped back to their positions, without visiting the other videos.
+     * Any other list is checked video by video against the ids.
      *
      * @param x Initial list
      * @return Filtered videos
      */
     @Override
     public List<Video> getFilteredList(final List<Video> x) {
-        List<Video> filteredList = new ArrayList<>();
+        BitSet ids = getFilteredIds();
 
-        if (filter.getGenres().isEmpty() && filter.getYear().isEmpty()) {
+        if (ids == null) {
             return x;
         }
 
-        if (filter.getGenres().isEmpty()) {
-            x.stream()
-                    .filter((video) -> video.hasYearFromList(filter.getYear()))
-                    .forEach(filteredList::add);
+        List<Video> filteredList = new ArrayList<>();
+        if (x.isEmpty()) {
+            return filteredList;
         }
 
-        if (filter.getYear().isEmpty()) {
+        int first = x.get(0).getId();
+        int last = x.get(x.size() - 1).getId();
+        if (last - first + 1 != x.size()) {
             x.stream()
-                    .filter((video) -> (video.hasGenreFromList(filter.getGenres())))
+                    .filter((video) -> ids.get(video.getId()))
                     .forEach(filteredList::add);
+            return filteredList;
         }
 
-        if (!filter.getGenres().isEmpty() && !filter.getYear().isEmpty()) {
-            x.stream()
-                    .filter((video) -> (video.hasGenreFromList(filter.getGenres())))
-                    .filter((video) -> (video.hasYearFromList(filter.getYear())))
-                    .forEach(filteredList::add);
+        for (int id = ids.nextSetBit(first); id >= 0 && id <= last;
+             id = ids.nextSetBit(id + 1)) {
+            filteredList.add(x.get(id - first));
         }
-
         return filteredList;
     }
 
+    /**
+     * Filter Test
+     * <p> A filter on genres or years is applied to the whole list at once,
+     * by getFilteredList, so there is a test only for the other filters.
+     *
+     * @return the test selecting all videos, or null if the videos are
+     * filtered by genres or years
+     */
+    @Override
+    protected Predicate<Video> getFilterTest() {
+        if (filter.hasVideoFilter()) {
+            return null;
+        }
+        return (video) -> true;
+    }
+
+    /**
+     * Video Checker
+     * <p> Checks a single video against the compiled filter, using the genre
+     * mask and the release year stored in the metrics, with a few bitwise
+     * operations. It suits walks that stop after a few videos, where
+     * resolving the whole filter through the indexes would cost more.
+     *
+     * @param video The video
+     * @return true, if the video matches the filter and false, otherwise
+     */
+    protected boolean matchesFilter(final Video video) {
+        return filter.matchesVideo(metrics.getGenreMask(video.getId()),
+                metrics.getYear(video.getId()));
+    }
+
+    /**
+     * Filter Resolver
+     * <p> The filters are resolved through the indexes of the database:
+     * the genres as the union of their posting lists and the years, or the
+     * ranges of years, through the year index. The two sets of ids are then
+     * intersected.
+     *
+     * @return the ids of the videos matching the filter, or null if the
+     * filter has neither genres nor years
+     */
+    protected BitSet getFilteredIds() {
+        if (!filter.hasVideoFilter()) {
+            return null;
+        }
+
+        BitSet selectedIds = null;
+        if (!filter.getGenres().isEmpty()) {
+            selectedIds = instance.getVideosByGenres(filter.getGenreMask());
+        }
+        if (filter.hasYearFilter()) {
+            BitSet yearIds = getYearIds();
+            if (selectedIds == null) {
+                selectedIds = yearIds;
+            } else {
+                selectedIds.and(yearIds);
+            }
+        }
+        return selectedIds;
+    }
+
+    /**
+     * Year Filter Resolver
+     * @return the ids of the videos released in one of the filtered years
+     * or in one of the filtered ranges of years
+     */
+    private BitSet getYearIds() {
+        BitSet yearIds = instance.getVideosByYears(filter.getYearSet());
+        for (YearRange range : filter.getYearRanges()) {
+            yearIds.or(instance.getVideosByYearRange(range.getFrom(), range.getTo()));
+        }
+        return yearIds;
+    }
+
     /**
      * <p> This method generates the output message after retrieving
      * the expected final list.
@@ -76,11 +170,7 @@ public abstract class VideoQuery extends Query<Video> {
 
         message.append("Query result: ");
         message.append("[");
-        if (finalList.size() > 0) {
-            message.append(finalList.get(0).getTitle());
-            finalList.remove(0);
-            finalList.forEach((video) -> message.append(", ").append(video.getTitle()));
-        }
+        appendNames(finalList, Video::getTitle);
         message.append("]");
     }
 }
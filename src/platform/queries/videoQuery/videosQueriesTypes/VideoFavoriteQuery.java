@@ -1,5 +1,6 @@
 package platform.queries.videoQuery.videosQueriesTypes;
 
+import database.Database;
 import entertainment.Video;
 import filter.Filter;
 import platform.queries.videoQuery.VideoQuery;
@@ -7,6 +8,8 @@ import platform.queries.videoQuery.VideoQuery;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -18,8 +21,9 @@ import java.util.stream.Collectors;
 public class VideoFavoriteQuery extends VideoQuery {
 
     public VideoFavoriteQuery(final int number, final String sortType,
-                              final List<Video> videos, final Filter filter) {
-        super(number, sortType, videos, filter);
+                              final List<Video> videos, final Filter filter,
+                              final Database instance) {
+        super(number, sortType, videos, filter, instance);
     }
 
     /**
@@ -35,12 +39,21 @@ public class VideoFavoriteQuery extends VideoQuery {
         List<Video> validatedList = new ArrayList<>();
 
         x.stream()
-                .filter((video) -> video.getCountFavorites() != 0)
+                .filter(getValidationTest())
                 .forEach(validatedList::add);
 
         return validatedList;
     }
 
+    /**
+     * Validation Test
+     * @return the test selecting the videos present in at least one favorite list
+     */
+    @Override
+    protected Predicate<Video> getValidationTest() {
+        return (video) -> metrics.getFavorites(video.getId()) != 0;
+    }
+
     /**
      * Favorite Sort
      * <p> This method sorts the given list of videos by the number of occurrences
@@ -53,15 +66,36 @@ public class VideoFavoriteQuery extends VideoQuery {
     public List<Video> getSortedList(final List<Video> x) {
         List<Video> sorted;
 
+        sorted = (List<Video>) x.stream()
+                .sorted(getComparator())
+                .collect(Collectors.toList());
+        return sorted;
+    }
+
+    /**
+     * Sort Order
+     * <p> The order used for sorting: by number of occurrences in the
+     * favorite lists and then by name, in ascendant order.
+     * @return the ascendant order of the videos
+     */
+    @Override
+    protected Comparator<Video> getComparator() {
         Comparator<Video> favoriteComparator = (Video v1, Video v2) ->
-                Double.compare(v1.getCountFavorites(), v2.getCountFavorites());
+                Integer.compare(metrics.getFavorites(v1.getId()),
+                        metrics.getFavorites(v2.getId()));
 
         Comparator<Video> nameComparator = (Video v1, Video v2) ->
                 v1.getTitle().compareTo(v2.getTitle());
 
-        sorted = (List<Video>) x.stream()
-                .sorted(favoriteComparator.thenComparing(nameComparator))
-                .collect(Collectors.toList());
-        return sorted;
+        return favoriteComparator.thenComparing(nameComparator);
+    }
+
+    /**
+     * Sort Key
+     * @return the number of occurrences in the favorite lists
+     */
+    @Override
+    protected ToDoubleFunction<Video> getSortKey() {
+        return (Video video) -> metrics.getFavorites(video.getId());
     }
 }
@@ -1,11 +1,14 @@
 package platform.queries.videoQuery.videosQueriesTypes;
 
 
+import database.Database;
 import entertainment.Video;
 import filter.Filter;
 import platform.queries.videoQuery.VideoQuery;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 /**
  * Class contains information on Longest Video Query
@@ -16,8 +19,9 @@ import java.util.stream.Collectors;
 public class VideoLongestQuery extends VideoQuery {
 
     public VideoLongestQuery(final int number, final String sortType,
-                             final List<Video> videos, final Filter filter) {
-        super(number, sortType, videos, filter);
+                             final List<Video> videos, final Filter filter,
+                             final Database instance) {
+        super(number, sortType, videos, filter, instance);
     }
 
     /**
@@ -30,6 +34,15 @@ public class VideoLongestQuery extends VideoQuery {
         return x;
     }
 
+    /**
+     * Validation Test
+     * @return the test selecting all videos
+     */
+    @Override
+    protected Predicate<Video> getValidationTest() {
+        return (video) -> true;
+    }
+
     /**
      * The Longest Video Query Sort
      * <p> This method sorts the given videos by the duration and then by the
@@ -42,16 +55,36 @@ public class VideoLongestQuery extends VideoQuery {
     public List<Video> getSortedList(final List<Video> x) {
         List<Video> sorted;
 
+        sorted = (List<Video>) x.stream()
+                .sorted(getComparator())
+                .collect(Collectors.toList());
+
+        return sorted;
+    }
+
+    /**
+     * Sort Order
+     * <p> The order used for sorting: by duration and then by name, in ascendant order.
+     * @return the ascendant order of the videos
+     */
+    @Override
+    protected Comparator<Video> getComparator() {
         Comparator<Video> durationComparator = (Video v1, Video v2) ->
-                Double.compare(v1.getDuration(), v2.getDuration());
+                Integer.compare(metrics.getDuration(v1.getId()),
+                        metrics.getDuration(v2.getId()));
 
         Comparator<Video> nameComparator = (Video v1, Video v2) ->
                 v1.getTitle().compareTo(v2.getTitle());
 
-        sorted = (List<Video>) x.stream()
-                .sorted(durationComparator.thenComparing(nameComparator))
-                .collect(Collectors.toList());
+        return durationComparator.thenComparing(nameComparator);
+    }
 
-        return sorted;
+    /**
+     * Sort Key
+     * @return the duration of the video
+     */
+    @Override
+    protected ToDoubleFunction<Video> getSortKey() {
+        return (Video video) -> metrics.getDuration(video.getId());
     }
 }
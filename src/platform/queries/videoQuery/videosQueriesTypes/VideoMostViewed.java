@@ -1,11 +1,16 @@
 package platform.queries.videoQuery.videosQueriesTypes;
 
+import database.Database;
 import entertainment.Video;
 import filter.Filter;
 import platform.queries.videoQuery.VideoQuery;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NavigableSet;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 /**
  * Class contains information on Most Viewed Video Query
@@ -14,10 +19,67 @@ import java.util.stream.Collectors;
  * @since Nov 2021
  */
 public class VideoMostViewed extends VideoQuery {
+    /**
+     * Ranking of the viewed videos of the queried type, or null if the
+     * query has to sort the given list
+     */
+    private NavigableSet<Video> mostViewed;
+
+    public VideoMostViewed(final int number, final String sortType,
+                           final List<Video> videos, final Filter filter,
+                           final Database instance) {
+        super(number, sortType, videos, filter, instance);
+    }
 
+    /**
+     * Constructor
+     * <p> Creates a most viewed query that reads its result from a ranking kept
+     * by the database, instead of sorting the given list.
+     *
+     * @param number Expected Number of elements
+     * @param sortType Sort Type (could be ascending or descending)
+     * @param videos List of initial videos
+     * @param filter Expected Filter
+     * @param instance The database
+     * @param mostViewed Ranking of the viewed videos from the list, in ascending
+     *                   order of views and titles
+     */
     public VideoMostViewed(final int number, final String sortType,
-                           final List<Video> videos, final Filter filter) {
-        super(number, sortType, videos, filter);
+                           final List<Video> videos, final Filter filter,
+                           final Database instance, final NavigableSet<Video> mostViewed) {
+        super(number, sortType, videos, filter, instance);
+        this.mostViewed = mostViewed;
+    }
+
+    /**
+     * Most Viewed Final List
+     * <p> When a ranking is available, it already holds the validated videos
+     * in sorted order. We walk it from the required end and keep the videos
+     * matching the filter until we have the required number of them. The
+     * walk usually stops early, so each video is checked against the
+     * compiled filter instead of resolving the filter for all videos.
+     *
+     * @param x Initial list
+     * @return Final list
+     */
+    @Override
+    public List<Video> getFinalList(final List<Video> x) {
+        if (mostViewed == null) {
+            return super.getFinalList(x);
+        }
+
+        List<Video> finalList = new ArrayList<>();
+        boolean filtered = filter.hasVideoFilter();
+        Iterator<Video> iterator = sortType.equals("desc")
+                ? mostViewed.descendingIterator() : mostViewed.iterator();
+
+        while (iterator.hasNext() && finalList.size() < number) {
+            Video video = iterator.next();
+            if (!filtered || matchesFilter(video)) {
+                finalList.add(video);
+            }
+        }
+        return finalList;
     }
 
     /**
@@ -33,12 +95,21 @@ public class VideoMostViewed extends VideoQuery {
         List<Video> validatedList = new ArrayList<>();
 
         x.stream()
-                .filter((video) -> video.getCountViews() != 0)
+                .filter(getValidationTest())
                 .forEach(validatedList::add);
 
         return validatedList;
     }
 
+    /**
+     * Validation Test
+     * @return the test selecting the videos having at least one view
+     */
+    @Override
+    protected Predicate<Video> getValidationTest() {
+        return (video) -> metrics.getViews(video.getId()) != 0;
+    }
+
     /**
      * Most Viewed Sort
      * <p> This method sorts the given videos by the number of views and then
@@ -51,16 +122,36 @@ public class VideoMostViewed extends VideoQuery {
     public List<Video> getSortedList(final List<Video> x) {
         List<Video> sorted;
 
+        sorted = (List<Video>) x.stream()
+                .sorted(getComparator())
+                .collect(Collectors.toList());
+
+        return sorted;
+    }
+
+    /**
+     * Sort Order
+     * <p> The order used for sorting: by number of views and then by name, in ascendant order.
+     * @return the ascendant order of the videos
+     */
+    @Override
+    protected Comparator<Video> getComparator() {
         Comparator<Video> viewsComparator = (Video v1, Video v2) ->
-                Double.compare(v1.getCountViews(), v2.getCountViews());
+                Integer.compare(metrics.getViews(v1.getId()),
+                        metrics.getViews(v2.getId()));
 
         Comparator<Video> nameComparator = (Video v1, Video v2) ->
                 v1.getTitle().compareTo(v2.getTitle());
 
-        sorted = (List<Video>) x.stream()
-                .sorted(viewsComparator.thenComparing(nameComparator))
-                .collect(Collectors.toList());
+        return viewsComparator.thenComparing(nameComparator);
+    }
 
-        return sorted;
+    /**
+     * Sort Key
+     * @return the number of views
+     */
+    @Override
+    protected ToDoubleFunction<Video> getSortKey() {
+        return (Video video) -> metrics.getViews(video.getId());
     }
 }
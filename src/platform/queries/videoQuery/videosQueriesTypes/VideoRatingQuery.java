@@ -1,11 +1,14 @@
 package platform.queries.videoQuery.videosQueriesTypes;
 
+import database.Database;
 import entertainment.Video;
 import filter.Filter;
 import platform.queries.videoQuery.VideoQuery;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 /**
  * Class contains information on Video Rating Query
@@ -16,8 +19,9 @@ import java.util.stream.Collectors;
 public class VideoRatingQuery extends VideoQuery {
 
     public VideoRatingQuery(final int number, final String sortType,
-                            final List<Video> videos, final Filter filter) {
-        super(number, sortType, videos, filter);
+                            final List<Video> videos, final Filter filter,
+                            final Database instance) {
+        super(number, sortType, videos, filter, instance);
     }
 
     /**
@@ -32,12 +36,21 @@ public class VideoRatingQuery extends VideoQuery {
         List<Video> validatedList = new ArrayList<>();
 
         x.stream()
-                .filter((video) -> video.getRating() != 0)
+                .filter(getValidationTest())
                 .forEach(validatedList::add);
 
         return validatedList;
     }
 
+    /**
+     * Validation Test
+     * @return the test selecting the videos having a rating
+     */
+    @Override
+    protected Predicate<Video> getValidationTest() {
+        return (video) -> metrics.getRating(video.getId()) != 0;
+    }
+
     /**
      * Rating Sort
      * <p> This method sorts the given list of videos by rating and then by
@@ -49,16 +62,36 @@ public class VideoRatingQuery extends VideoQuery {
     public List<Video> getSortedList(final List<Video> x) {
         List<Video> sorted;
 
+        sorted = (List<Video>) x.stream()
+                .sorted(getComparator())
+                .collect(Collectors.toList());
+
+        return sorted;
+    }
+
+    /**
+     * Sort Order
+     * <p> The order used for sorting: by rating and then by name, in ascendant order.
+     * @return the ascendant order of the videos
+     */
+    @Override
+    protected Comparator<Video> getComparator() {
         Comparator<Video> ratingComparator = (Video v1, Video v2) ->
-                Double.compare(v1.getRating(), v2.getRating());
+                Double.compare(metrics.getRating(v1.getId()),
+                        metrics.getRating(v2.getId()));
 
         Comparator<Video> nameComparator = (Video v1, Video v2) ->
                 v1.getTitle().compareTo(v2.getTitle());
 
-        sorted = (List<Video>) x.stream()
-                .sorted(ratingComparator.thenComparing(nameComparator))
-                .collect(Collectors.toList());
+        return ratingComparator.thenComparing(nameComparator);
+    }
 
-        return sorted;
+    /**
+     * Sort Key
+     * @return the rating of the video
+     */
+    @Override
+    protected ToDoubleFunction<Video> getSortKey() {
+        return (Video video) -> metrics.getRating(video.getId());
     }
 }
@@ -28,15 +28,24 @@ public class BestUnseenRecommendation extends VideoRatingQuery {
      * The User
      */
     private User user;
-    /**
-     * The Database instance
-     */
-    private Database instance;
 
     public BestUnseenRecommendation(final User user, final Database instance) {
-        super(1, "desc", instance.getUnseenVideosByUser(user), new Filter());
+        this(user, instance, instance.getUnseenVideosByUser(user));
+    }
+
+    /**
+     * Constructor
+     * <p> Creates the recommendation from the already computed list of the
+     * videos the user hasn't watched.
+     *
+     * @param user The user
+     * @param instance Database instance
+     * @param unseenVideos The videos the user hasn't watched, in database order
+     */
+    public BestUnseenRecommendation(final User user, final Database instance,
+                                    final List<Video> unseenVideos) {
+        super(1, "desc", unseenVideos, new Filter(), instance);
         this.user = user;
-        this.instance = instance;
     }
 
     /**
@@ -49,16 +58,27 @@ public class BestUnseenRecommendation extends VideoRatingQuery {
     public List<Video> getSortedList(final List<Video> x) {
         final List<Video> sorted;
 
-        Comparator<Video> ratingComp = (Video v1, Video v2) ->
-                Double.compare(v1.getRating(), v2.getRating());
-
         sorted = (List<Video>) x.stream()
-                .sorted(ratingComp)
+                .sorted(getComparator())
                 .collect(Collectors.toList());
 
         return sorted;
     }
 
+    /**
+     * Sort Order
+     * <p> The order used for sorting: by rating only, in ascendant order,
+     * so equal videos keep their database order.
+     * @return the ascendant order of the videos
+     */
+    @Override
+    protected Comparator<Video> getComparator() {
+        Comparator<Video> ratingComp = (Video v1, Video v2) ->
+                Double.compare(metrics.getRating(v1.getId()), metrics.getRating(v2.getId()));
+
+        return ratingComp;
+    }
+
     /**
      * <p> This method prints the best unseen video.
      * <p> If it there is no unseen video this method gives an error message.
@@ -72,11 +92,12 @@ public class BestUnseenRecommendation extends VideoRatingQuery {
     public void execute() {
         List<Video> finalList = getFinalList(list);
         if (finalList.size() == 0) {
-            if (instance.getUnseenVideosByUser(user).size() == 0) {
+            Video unseenVideo = instance.getFirstUnseenVideoByUser(user);
+            if (unseenVideo == null) {
                 message.append("BestRatedUnseenRecommendation cannot be applied!");
             } else {
                 message.append("BestRatedUnseenRecommendation result: ");
-                message.append(instance.getUnseenVideosByUser(user).get(0).getTitle());
+                message.append(unseenVideo.getTitle());
             }
         } else {
             message.append("BestRatedUnseenRecommendation result: ");
@@ -22,12 +22,24 @@ import java.util.List;
  * @since Nov 2021
  */
 public class FavoriteRecommendation extends VideoFavoriteQuery {
-    private Database instance;
     private User user;
 
     public FavoriteRecommendation(final User user, final Database instance) {
-        super(1, "desc", instance.getUnseenVideosByUser(user), new Filter());
-        this.instance = instance;
+        this(user, instance, instance.getUnseenVideosByUser(user));
+    }
+
+    /**
+     * Constructor
+     * <p> Creates the recommendation from the already computed list of the
+     * videos the user hasn't watched.
+     *
+     * @param user The user
+     * @param instance Database instance
+     * @param unseenVideos The videos the user hasn't watched, in database order
+     */
+    public FavoriteRecommendation(final User user, final Database instance,
+                                  final List<Video> unseenVideos) {
+        super(1, "desc", unseenVideos, new Filter(), instance);
         this.user = user;
     }
 
@@ -46,16 +58,29 @@ public class FavoriteRecommendation extends VideoFavoriteQuery {
         x.sort(new Comparator<Video>() {
             @Override
             public int compare(final Video o1, final Video o2) {
-                if (o1.getCountFavorites() == o2.getCountFavorites()) {
+                int favorites1 = metrics.getFavorites(o1.getId());
+                int favorites2 = metrics.getFavorites(o2.getId());
+                if (favorites1 == favorites2) {
                     return -1;
                 } else {
-                    return Double.compare(o1.getCountFavorites(), o2.getCountFavorites());
+                    return Integer.compare(favorites1, favorites2);
                 }
             }
         });
         return x;
     }
 
+    /**
+     * The comparator used above forces equalities to swap positions, so the
+     * result depends on the sorting algorithm itself and can't be obtained
+     * by a selection. We keep sorting the whole list.
+     * @return null
+     */
+    @Override
+    protected Comparator<Video> getComparator() {
+        return null;
+    }
+
     /**
      * <p> This method prints the unseen video appearing in the most favorite lists.
      * <p> If there is no unseen video in the database or the user's subscription type
@@ -70,12 +95,12 @@ public class FavoriteRecommendation extends VideoFavoriteQuery {
         List<Video> finalList = getFinalList(list);
 
         if (finalList.size() == 0) {
-            if (instance.getUnseenVideosByUser(user).size() == 0
-                    || user.getSubscriptionType().equals("BASIC")) {
+            Video unseenVideo = instance.getFirstUnseenVideoByUser(user);
+            if (unseenVideo == null || user.getSubscriptionType().equals("BASIC")) {
                 message.append("FavoriteRecommendation cannot be applied!");
             } else {
                 message.append("FavoriteRecommendation result: ")
-                        .append(instance.getUnseenVideosByUser(user).get(0).getTitle());
+                        .append(unseenVideo.getTitle());
             }
         } else {
             message.append("FavoriteRecommendation result: ").append(finalList.get(0).getTitle());
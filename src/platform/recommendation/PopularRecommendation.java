@@ -3,8 +3,9 @@ package platform.recommendation;
 import database.Database;
 import entertainment.Genre;
 import entertainment.Video;
-import filter.Filter;
 import user.User;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
 /**
  * Class contains information about a Popular Recommendation
@@ -21,8 +22,21 @@ import java.util.List;
 public class PopularRecommendation extends SearchRecommendation {
 
     public PopularRecommendation(final User user, final Database instance) {
-        super(user, instance, null);
-        setFilter(new Filter(getGenre()));
+        this(user, instance, instance.getUnseenIdsByUser(user));
+    }
+
+    /**
+     * Constructor
+     * <p> Creates the recommendation from the already computed ids of the
+     * videos the user hasn't watched.
+     *
+     * @param user The user
+     * @param instance Database instance
+     * @param unseenIds The ids of the videos the user hasn't watched
+     */
+    public PopularRecommendation(final User user, final Database instance,
+                                 final BitSet unseenIds) {
+        super(user, instance, getGenre(instance, unseenIds), unseenIds);
     }
 
     /**
@@ -31,18 +45,19 @@ public class PopularRecommendation extends SearchRecommendation {
      * order by their popularity, this method chooses the first available genre
      * that the user hasn't fully watched.
      *
-     * <p> For example,
+     * <p> Each genre is checked by intersecting its posting list with the
+     * set of ids of the unseen videos.
+     *
+     * @param instance Database instance
+     * @param unseenIds The ids of the videos the user hasn't watched
      * @return the most popular genre
      */
-    private Genre getGenre() {
+    private static Genre getGenre(final Database instance, final BitSet unseenIds) {
         List<Genre> sortedGenres = instance.getSortedGenres();
-        List<Video> unseenVideos = instance.getUnseenVideosByUser(user);
 
         for (Genre genre : sortedGenres) {
-            for (Video video : unseenVideos) {
-                if (video.hasGenre(genre)) {
-                    return genre;
-                }
+            if (instance.getVideosByGenre(genre).intersects(unseenIds)) {
+                return genre;
             }
         }
         return null;
@@ -58,6 +73,15 @@ public class PopularRecommendation extends SearchRecommendation {
         return x;
     }
 
+    /**
+     * Since the list is not sorted, there is no sort order to select from.
+     * @return null
+     */
+    @Override
+    protected Comparator<Video> getComparator() {
+        return null;
+    }
+
     /**
      * <p> This method prints the name of the first unseen video having the
      * most popular genre.
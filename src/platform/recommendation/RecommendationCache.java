@@ -0,0 +1,75 @@
+package platform.recommendation;
+
+import database.Database;
+import database.VideoMetrics;
+import fileio.ActionInputData;
+import platform.queries.QueryCache;
+import user.User;
+
+/**
+ * Class represents a cache of recommendation results
+ * <p> A recommendation is kept for each user, type and genre. Every type
+ * reads the set of videos watched by the user, and most of them also read
+ * one dimension of the metrics:
+ * <p> - best unseen and search recommendations read the ratings
+ * <p> - favorite recommendations read the favorite counts
+ * <p> - popular recommendations read the views, through the genre order
+ * <p> The version of a recommendation is the sum of the watched count of
+ * the user and the version of that dimension. Both only grow and any change
+ * increments one of them, so the sum changes exactly when one of them does.
+ * <p> "Cannot be applied" answers are cached like any other result.
+ * <p> A recommendation answered from the cache is still the previous action
+ * of the next input, like a query, see ActionExecutor.
+ *
+ * @author Dumitrescu Alexandra
+ * @since Nov 2021
+ */
+public class RecommendationCache extends QueryCache {
+
+    /**
+     * Constructor
+     * @param instance Database instance
+     */
+    public RecommendationCache(final Database instance) {
+        super(instance);
+    }
+
+    /**
+     * Recommendation Key
+     * <p> Recommendations for unknown users can't be cached.
+     *
+     * @param actionData The input of the recommendation
+     * @return the key of the recommendation, or null if its result can't be
+     * cached
+     */
+    @Override
+    public String getKey(final ActionInputData actionData) {
+        if (instance.getUserByName(actionData.getUsername()) == null) {
+            return null;
+        }
+        return actionData.getType() + "|" + actionData.getUsername() + "|"
+                + actionData.getGenre();
+    }
+
+    /**
+     * Recommendation Version
+     * @param actionData The input of the recommendation
+     * @return the current version of the state read by the recommendation
+     */
+    @Override
+    public long getVersion(final ActionInputData actionData) {
+        User user = instance.getUserByName(actionData.getUsername());
+        VideoMetrics metrics = instance.getMetrics();
+
+        long version = user.getWatchedCount();
+        if (actionData.getType() == null) {
+            return version;
+        }
+        return version + switch (actionData.getType()) {
+            case "best_unseen", "search" -> metrics.getVersion(VideoMetrics.Dimension.RATINGS);
+            case "favorite" -> metrics.getVersion(VideoMetrics.Dimension.FAVORITES);
+            case "popular" -> metrics.getVersion(VideoMetrics.Dimension.VIEWS);
+            default -> 0;
+        };
+    }
+}
@@ -6,7 +6,10 @@ import entertainment.Video;
 import filter.Filter;
 import platform.queries.videoQuery.videosQueriesTypes.VideoRatingQuery;
 import user.User;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Predicate;
 /**
  * Class contains information about a Search Recommendation
  * <p> A search Recommendation retrieves the list of unseen videos from a given genre
@@ -17,8 +20,8 @@ import java.util.List;
  * of the user's unseen videos from the database.
  * Search Recommendation = VideoRatingQuery - number = size(list_of_unseen_videos)
  *                                          - sort = ascendant
- *                                          - list = unseen_videos
- *                                          - filter = given filter
+ *                                          - list = unseen_videos of the genre
+ *                                          - filter = none
  *
  * @author Dumitrescu Alexandra
  * @since Nov 2021
@@ -28,16 +31,65 @@ public class SearchRecommendation extends VideoRatingQuery {
      * The user
      */
     protected User user;
+
+    public SearchRecommendation(final User user, final Database instance, final Genre genre) {
+        this(user, instance, genre, instance.getUnseenIdsByUser(user));
+    }
+
     /**
-     * The Database
+     * Constructor
+     * <p> Creates the recommendation from the already computed ids of the
+     * videos the user hasn't watched.
+     *
+     * @param user The user
+     * @param instance Database instance
+     * @param genre The searched genre
+     * @param unseenIds The ids of the videos the user hasn't watched
      */
-    protected Database instance;
+    public SearchRecommendation(final User user, final Database instance, final Genre genre,
+                                final BitSet unseenIds) {
+        this(user, instance, getUnseenVideos(instance, genre, unseenIds));
+    }
 
-    public SearchRecommendation(final User user, final Database instance, final Genre genre) {
-        super(instance.getUnseenVideosByUser(user).size(), "asc",
-                instance.getUnseenVideosByUser(user), new Filter(genre));
+    /**
+     * Constructor
+     * <p> Creates the recommendation from the unseen videos of the searched
+     * genre, which need no further filter.
+     *
+     * @param user The user
+     * @param instance Database instance
+     * @param videos The unseen videos of the searched genre, in database order
+     */
+    private SearchRecommendation(final User user, final Database instance,
+                                 final List<Video> videos) {
+        super(videos.size(), "asc", videos, new Filter(), instance);
         this.user = user;
-        this.instance = instance;
+    }
+
+    /**
+     * Unseen Videos of a Genre
+     * <p> The posting list of the genre is intersected with the ids of the
+     * unseen videos, and the remaining ids are walked in order, so only the
+     * unseen videos of the genre are visited.
+     *
+     * @param instance Database instance
+     * @param genre The searched genre - an unknown (null) genre has no videos
+     * @param unseenIds The ids of the videos the user hasn't watched
+     * @return the unseen videos of the genre, in database order
+     */
+    private static List<Video> getUnseenVideos(final Database instance, final Genre genre,
+                                               final BitSet unseenIds) {
+        List<Video> videos = new ArrayList<>();
+        if (genre == null) {
+            return videos;
+        }
+
+        BitSet ids = (BitSet) instance.getVideosByGenre(genre).clone();
+        ids.and(unseenIds);
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            videos.add(instance.getVideoById(id));
+        }
+        return videos;
     }
 
     /**
@@ -50,6 +102,15 @@ public class SearchRecommendation extends VideoRatingQuery {
         return x;
     }
 
+    /**
+     * Validation Test
+     * @return the test selecting all videos
+     */
+    @Override
+    protected Predicate<Video> getValidationTest() {
+        return (video) -> true;
+    }
+
     /**
      * <p> This method prints all unseen videos from the required genre.
      * If there is no unseen video in the database or the user's subscription type
@@ -62,9 +123,8 @@ public class SearchRecommendation extends VideoRatingQuery {
         if (finalList.size() == 0  || user.getSubscriptionType().equals("BASIC")) {
             message.append("SearchRecommendation cannot be applied!");
         } else {
-            message.append("SearchRecommendation result: [").append(finalList.get(0).getTitle());
-            finalList.remove(0);
-            finalList.forEach((video) -> message.append(", ").append(video.getTitle()));
+            message.append("SearchRecommendation result: [");
+            appendNames(finalList, Video::getTitle);
             message.append("]");
         }
     }
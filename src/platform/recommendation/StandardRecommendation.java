@@ -4,7 +4,6 @@ import database.Database;
 import entertainment.Video;
 import platform.Action;
 import user.User;
-import java.util.List;
 /**
  * Class contains information about a Standard Recommendation
  * <p> A standard recommendation can be applied to all types of users
@@ -41,12 +40,12 @@ public class StandardRecommendation extends Action {
      */
     @Override
     public void execute() {
-        List<Video> unseenVideos = instance.getUnseenVideosByUser(user);
-        if (unseenVideos.size() == 0) {
+        Video unseenVideo = instance.getFirstUnseenVideoByUser(user);
+        if (unseenVideo == null) {
             message.append("StandardRecommendation cannot be applied!");
         } else {
             message.append("StandardRecommendation result: ");
-            message.append(unseenVideos.get(0).getTitle());
+            message.append(unseenVideo.getTitle());
         }
     }
 }
@@ -4,9 +4,11 @@ import database.Database;
 import entertainment.Video;
 import fileio.UserInputData;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Class contains information about a User
@@ -15,6 +17,10 @@ import java.util.Map;
  * @since Nov 2021
  */
 public class User {
+    /**
+     * Dense id, given by the Database in loading order
+     */
+    private int id;
     /**
      * Username
      */
@@ -27,6 +33,10 @@ public class User {
      * Map of History - stores a video and a total count of views
      */
     private HashMap<Video, Integer> history;
+    /**
+     * Ids of all watched Videos
+     */
+    private BitSet watchedVideos;
     /**
      * List of Favorite Videos
      */
@@ -62,18 +72,22 @@ public class User {
 
         List<Video> inputFavoriteVideos = new ArrayList<>();
         input.getFavoriteMovies().stream()
-                .filter((name) -> instance.getVideoByName(name) != null)
-                .forEach((name) -> inputFavoriteVideos.add(instance.getVideoByName(name)));
+                .map(instance::getVideoByName)
+                .filter(Objects::nonNull)
+                .forEach(inputFavoriteVideos::add);
         this.favoriteVideos = inputFavoriteVideos;
 
 
         HashMap<Video, Integer> historyVideos = new HashMap<>();
         for (Map.Entry<String, Integer> entry : input.getHistory().entrySet()) {
-            if (instance.getVideoByName(entry.getKey()) != null) {
-                historyVideos.put(instance.getVideoByName(entry.getKey()), entry.getValue());
+            Video video = instance.getVideoByName(entry.getKey());
+            if (video != null) {
+                historyVideos.put(video, entry.getValue());
             }
         }
         this.history = historyVideos;
+        this.watchedVideos = new BitSet();
+        this.history.keySet().forEach((video) -> watchedVideos.set(video.getId()));
 
         for (Video video : this.favoriteVideos) {
             video.setCountFavorites(video.getCountFavorites() + 1);
@@ -107,18 +121,41 @@ public class User {
 
     /**
      * Watched Video Checker
-     * <p> This method checks if the user has seen a specified video.
+     * <p> This method checks if the user has seen a specified video,
+     * looking up its id in the set of watched videos.
      * @param video The video
      * @return true, if the user has already watched the video and
      * false, otherwise
      */
     public boolean hasWatchedVideo(final Video video) {
-        for (Map.Entry<Video, Integer> entry : history.entrySet()) {
-            if (entry.getKey().getTitle().equals(video.getTitle())) {
-                return true;
-            }
-        }
-        return false;
+        return watchedVideos.get(video.getId());
+    }
+
+    /**
+     * First View Setter
+     * <p> This method adds a video the user has never seen to the history,
+     * with a single view, and to the set of watched videos.
+     * @param video The video
+     */
+    public void addWatchedVideo(final Video video) {
+        history.put(video, 1);
+        watchedVideos.set(video.getId());
+    }
+
+    /**
+     * Id Getter
+     * @return the id of the user in the database
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Id Setter
+     * @param id The id given by the database
+     */
+    public void setId(final int id) {
+        this.id = id;
     }
 
     /**
@@ -145,6 +182,24 @@ public class User {
         return history;
     }
 
+    /**
+     * Watched Videos Getter
+     * @return the ids of the watched videos - must not be modified
+     */
+    public BitSet getWatchedVideos() {
+        return watchedVideos;
+    }
+
+    /**
+     * Watched Count Getter
+     * <p> Videos are never removed from the history, so the count changes
+     * every time the set of watched videos changes.
+     * @return the number of watched videos
+     */
+    public int getWatchedCount() {
+        return history.size();
+    }
+
     /**
      * Favorite Videos Getter
      * @return the List of favorite videos